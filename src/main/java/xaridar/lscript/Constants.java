@@ -9,7 +9,9 @@ package xaridar.lscript;
 
 import xaridar.lscript.interpreting.types.BasicType;
 import xaridar.lscript.interpreting.types.LByte;
+import xaridar.lscript.interpreting.types.LDouble;
 import xaridar.lscript.interpreting.types.LList;
+import xaridar.lscript.interpreting.types.LLong;
 import xaridar.lscript.interpreting.types.LString;
 
 import java.util.*;
@@ -43,8 +45,10 @@ public class Constants {
         TYPES_BRACKET.add("class");
 
         TYPES = new HashMap<>();
-        TYPES.put("int", Arrays.asList("int", "float", "num"));
-        TYPES.put("float", Arrays.asList("float", "num"));
+        TYPES.put("int", Arrays.asList("int", "long", "float", "double", "num"));
+        TYPES.put("long", Arrays.asList("long", "float", "double", "num"));
+        TYPES.put("float", Arrays.asList("float", "double", "num"));
+        TYPES.put("double", Arrays.asList("double", "num"));
         TYPES.put("var", null);
         TYPES.put("bool", Collections.singletonList("bool"));
         TYPES.put("function", Collections.singletonList("function"));
@@ -55,7 +59,7 @@ public class Constants {
         TYPES.put("map", Collections.singletonList("map"));
         TYPES.put("num", Collections.singletonList("float"));
         TYPES.put("file", Collections.singletonList("file"));
-        TYPES.put("byte", Arrays.asList("int", "float", "num"));
+        TYPES.put("byte", Arrays.asList("int", "long", "float", "double", "num"));
 
         for (String type : TYPES_BRACKET) {
             TYPES.put(type, Collections.singletonList(type));
@@ -65,6 +69,8 @@ public class Constants {
         CONVERT_CLASSES.put("str", LString.class);
         CONVERT_CLASSES.put("list", LList.class);
         CONVERT_CLASSES.put("byte", LByte.class);
+        CONVERT_CLASSES.put("long", LLong.class);
+        CONVERT_CLASSES.put("double", LDouble.class);
 
 
         MODS_LIST = new ArrayList<>();
@@ -72,6 +78,7 @@ public class Constants {
         MODS_LIST.add("priv");
         MODS_LIST.add("stat");
         MODS_LIST.add("fin");
+        MODS_LIST.add("memo");
 
         DESIGNATED_KEYWORDS = new ArrayList<>();
         DESIGNATED_KEYWORDS.addAll(MODS_LIST);
@@ -17,8 +17,11 @@ import xaridar.lscript.interpreting.types.builtins.IExecutable;
 import xaridar.lscript.interpreting.types.builtins.math.MathConstants;
 import xaridar.lscript.lexing.Lexer;
 import xaridar.lscript.lexing.Token;
+import xaridar.lscript.parsing.Optimizer;
 import xaridar.lscript.parsing.ParseResult;
 import xaridar.lscript.parsing.Parser;
+import xaridar.lscript.parsing.Resolver;
+import xaridar.lscript.parsing.nodes.Node;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -138,10 +141,12 @@ public class Shell {
         Parser parser = new Parser(tokens);
         ParseResult ast = parser.parse();
         if (ast.hasError()) return Tuple.of(null, ast.getError());
+        Node root = new Optimizer().optimizeScript(ast.getNode());
+        new Resolver().resolveScript(root);
 
         Interpreter interpreter = Interpreter.getInstance();
         Interpreter.setOnlySymbols(false);
-        RunTimeResult result = interpreter.visit(ast.getNode(), context);
+        RunTimeResult result = interpreter.visit(root, context);
         if (result.hasError()) return Tuple.of(null, result.getError());
 
         return Tuple.of(result.getValue(), null);
@@ -166,10 +171,12 @@ public class Shell {
         Parser parser = new Parser(tokens);
         ParseResult ast = parser.parse();
         if (ast.hasError()) return Tuple.of(null, ast.getError());
+        Node root = new Optimizer().optimizeScript(ast.getNode());
+        new Resolver().resolveScript(root);
 
         Interpreter interpreter = Interpreter.getInstance();
         Interpreter.setOnlySymbols(setOnlySymbols);
-        RunTimeResult result = interpreter.visit(ast.getNode(), context);
+        RunTimeResult result = interpreter.visit(root, context);
         Interpreter.setOnlySymbols(false);
         if (result.hasError()) return Tuple.of(null, result.getError());
 
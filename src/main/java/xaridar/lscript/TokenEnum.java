@@ -13,6 +13,8 @@ package xaridar.lscript;
 public enum TokenEnum {
     TT_INT,
     TT_FLOAT,
+    TT_LONG,
+    TT_DOUBLE,
     TT_KW,
     TT_IDENTIFIER,
     TT_STR,
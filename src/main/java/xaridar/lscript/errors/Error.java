@@ -24,6 +24,19 @@ public class Error {
         this.details = details;
     }
 
+    /**
+     * Fills in any Positions this Error is missing, which happens when it is raised by a Value without a Position, such as an int or bool.
+     * @param posStart - The start Position of the Node the Error was raised at.
+     * @param posEnd - The end Position of the Node the Error was raised at.
+     * @param context - The Context of the Node the Error was raised at.
+     * @return this Error.
+     */
+    public Error locate(Position posStart, Position posEnd, Context context) {
+        if (this.posStart == null) this.posStart = posStart;
+        if (this.posEnd == null) this.posEnd = posEnd;
+        return this;
+    }
+
     @Override
     public String toString() {
         String result = String.format("%s: %s\nFile %s, line %d", errorName, details, posStart.getFn(), posStart.getLn() + 1);
@@ -61,6 +74,12 @@ public class Error {
             this.context = context;
         }
 
+        @Override
+        public Error locate(Position posStart, Position posEnd, Context context) {
+            if (this.context == null) this.context = context;
+            return super.locate(posStart, posEnd, context);
+        }
+
         @Override
         public String toString() {
             String result = generateStackTrace();
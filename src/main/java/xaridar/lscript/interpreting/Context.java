@@ -18,14 +18,18 @@ import java.util.stream.Collectors;
 
 /**
  * A nested context of the program, which includes a SymbolTable holding all of the Context's variable, as well as a name for error generation.
+ * Types are registered in the Context that declares them and resolved through its parents, ending with the built-in types, so a Context only allocates a map of types if one is declared in it.
+ * Most Contexts, such as function calls, never declare any, and share an empty set of contained Contexts as well.
  */
 public class Context {
+    private static final Map<String, List<String>> BUILT_IN_TYPES = Collections.unmodifiableMap(Constants.getInstance().TYPES.keySet().stream().collect(Collectors.toMap(type -> type, Collections::singletonList)));
+
     Position parentEntryPos;
     Context parent;
     String displayName;
     SymbolTable symbolTable;
     Map<String, Context> accessibleContainedContexts;
-    Map<String, List<String>> extendTypes;
+    Map<String, List<String>> types;
     boolean isClass;
 
     /**
@@ -39,8 +43,7 @@ public class Context {
         this.parent = parent;
         this.displayName = displayName;
         this.symbolTable = null;
-        this.accessibleContainedContexts = new HashMap<>();
-        extendTypes = new HashMap<>(Constants.getInstance().TYPES.keySet().stream().collect(Collectors.toMap(type -> type, Collections::singletonList)));
+        this.accessibleContainedContexts = Collections.emptyMap();
         this.isClass = isClass;
     }
 
@@ -85,7 +88,7 @@ public class Context {
      * @param c - The Context to add.
      */
     public void addContainedContext(String name, Context c) {
-        accessibleContainedContexts.put(name, c);
+        ownContainedContexts().put(name, c);
         c.parent = this;
     }
 
@@ -94,7 +97,7 @@ public class Context {
      * @return The Context in this Context's list of contained Contexts that starts with the provided name, or null if it is not found.
      */
     public Context getContainedByName(String name) {
-        return accessibleContainedContexts.keySet().stream().filter(str -> str.equals(name)).findFirst().map(str -> accessibleContainedContexts.get(str)).orElse(null);
+        return accessibleContainedContexts.get(name);
     }
 
     /**
@@ -107,8 +110,8 @@ public class Context {
     public Error addClass(LClass cls, Context c, ModifierList mods) {
         Error err = getSymbolTable().set("class", cls.getName(), cls, mods);
         if (err != null) return err;
-        accessibleContainedContexts.put(cls.getName(), c);
-        extendTypes.put(cls.getName(), getStringExtendNames(cls));
+        ownContainedContexts().put(cls.getName(), c);
+        ownTypes().put(cls.getName(), getStringExtendNames(cls));
         return null;
     }
 
@@ -117,20 +120,33 @@ public class Context {
         return getStringExtendNames(cls.getThisExtends());
     }
 
+    /**
+     * @return The types declared in this Context, mapped to the types they extend. Does not include built-in types or types declared in parent Contexts.
+     */
     public Map<String, List<String>> getTypes() {
-        return extendTypes;
+        return types == null ? Collections.emptyMap() : types;
     }
 
+    /**
+     * @param type - The name of the type to search for.
+     * @return True if the type is built in, or declared in this Context or one of its parents.
+     */
     public boolean hasType(String type) {
-        if (extendTypes.containsKey(type)) return true;
-        if (parent != null) {
-            return parent.hasType(type);
-        }
-        return false;
+        return getTypesForClass(type) != null;
     }
 
     public void addType(String type, List<String> extendTypes) {
-        this.extendTypes.put(type, extendTypes);
+        ownTypes().put(type, extendTypes);
+    }
+
+    private Map<String, List<String>> ownTypes() {
+        if (types == null) types = new HashMap<>();
+        return types;
+    }
+
+    private Map<String, Context> ownContainedContexts() {
+        if (accessibleContainedContexts == Collections.<String, Context>emptyMap()) accessibleContainedContexts = new HashMap<>();
+        return accessibleContainedContexts;
     }
 
     public Context getClassCtx() {
@@ -139,8 +155,15 @@ public class Context {
         return null;
     }
 
+    /**
+     * Finds the types a type extends, from the closest Context declaring it.
+     * @param cls - The name of the type.
+     * @return The types extended by the type, or null if it is not built in or declared in this Context or its parents.
+     */
     public List<String> getTypesForClass(String cls) {
-        if (extendTypes.containsKey(cls)) return extendTypes.get(cls);
-        return null;
+        for (Context ctx = this; ctx != null; ctx = ctx.parent) {
+            if (ctx.types != null && ctx.types.containsKey(cls)) return ctx.types.get(cls);
+        }
+        return BUILT_IN_TYPES.get(cls);
     }
 }
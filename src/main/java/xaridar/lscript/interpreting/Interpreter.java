@@ -19,23 +19,23 @@ import xaridar.lscript.interpreting.types.LFloat;
 import java.io.IOException;
 import java.lang.Boolean;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.function.Predicate;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 /**
  * Singleton class, which recursively visits all nodes contained in a nested node and calls operations, functions, and other capabilities of the language.
  */
-@SuppressWarnings("unused")
 public class Interpreter {
     public static boolean setOnlySymbols = false;
 
     private static Interpreter INSTANCE;
 
+    private final Map<Class<? extends Node>, BiFunction<Node, Context, RunTimeResult>> visitors;
+
     /**
      * Singleton instance variable retrieval.
      * @return the single Interpreter instance.
@@ -45,6 +45,48 @@ public class Interpreter {
         return INSTANCE;
     }
 
+    /**
+     * Builds the dispatch table, mapping each Node class to the visit method that interprets it.
+     */
+    private Interpreter() {
+        visitors = new HashMap<>();
+        addVisitor(NumberNode.class, this::visitNumberNode);
+        addVisitor(StringNode.class, this::visitStringNode);
+        addVisitor(ListNode.class, this::visitListNode);
+        addVisitor(MultilineNode.class, this::visitMultilineNode);
+        addVisitor(MapNode.class, this::visitMapNode);
+        addVisitor(BinaryOperationNode.class, this::visitBinaryOperationNode);
+        addVisitor(UnaryOperationNode.class, this::visitUnaryOperationNode);
+        addVisitor(VarAccessNode.class, this::visitVarAccessNode);
+        addVisitor(VarAssignNode.class, this::visitVarAssignNode);
+        addVisitor(ValueListNode.class, this::visitValueListNode);
+        addVisitor(VarListAssignNode.class, this::visitVarListAssignNode);
+        addVisitor(ConditionalNode.class, this::visitConditionalNode);
+        addVisitor(ForNode.class, this::visitForNode);
+        addVisitor(WhileNode.class, this::visitWhileNode);
+        addVisitor(FuncDefNode.class, this::visitFuncDefNode);
+        addVisitor(CallNode.class, this::visitCallNode);
+        addVisitor(IndexNode.class, this::visitIndexNode);
+        addVisitor(SetIndexNode.class, this::visitSetIndexNode);
+        addVisitor(ContinueNode.class, this::visitContinueNode);
+        addVisitor(ReturnNode.class, this::visitReturnNode);
+        addVisitor(BreakNode.class, this::visitBreakNode);
+        addVisitor(ImportNode.class, this::visitImportNode);
+        addVisitor(FileImportNode.class, this::visitFileImportNode);
+        addVisitor(ClassNode.class, this::visitClassNode);
+        addVisitor(InstanceNode.class, this::visitInstanceNode);
+    }
+
+    /**
+     * Registers the visit method for a type of Node.
+     * @param nodeClass - The class of Node handled by the visitor.
+     * @param visitor - The visit method to call on Nodes of the given class.
+     * @param <T> - The type of Node handled by the visitor.
+     */
+    private <T extends Node> void addVisitor(Class<T> nodeClass, BiFunction<T, Context, RunTimeResult> visitor) {
+        visitors.put(nodeClass, (node, context) -> visitor.apply(nodeClass.cast(node), context));
+    }
+
     /**
      * Sets the Interpreter to SetOnlySymbols mode, in which it will not run scripts, but only create Symbols.
      * @param setOnlySymbols - Toggle for SetOnlySymbolsMode.
@@ -60,36 +102,39 @@ public class Interpreter {
      * @return an RTResult, containing either a Value or an Error.
      */
     public RunTimeResult visit(Node node, Context context) {
-        try {
-            Method method = getClass().getMethod("visit" + node.getClass().getSimpleName(), node.getClass(), Context.class);
-            return (RunTimeResult) method.invoke(this, node, context);
-        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-            e.printStackTrace();
-            return null;
-        }
+        BiFunction<Node, Context, RunTimeResult> visitor = visitors.get(node.getClass());
+        if (visitor == null)
+            return RunTimeResult.shared().failure(new Error.RunTimeError(node.getPosStart(), node.getPosEnd(), "Cannot interpret node of type '" + node.getClass().getSimpleName() + "'", context));
+        RunTimeResult res = visitor.apply(node, context);
+        if (res.hasError()) res.getError().locate(node.getPosStart(), node.getPosEnd(), context);
+        return res;
     }
 
     /**
-     * All of the following methods use java.lang.reflect API and are called on specific types of Nodes.
+     * All of the following methods are registered in the dispatch table and are called on specific types of Nodes.
      * Each of them takes two parameters: A node of their specified type to interpret, and the Context of said Node.
      * They all return an RTResult, containing either a Value or an Error.
      */
 
     public RunTimeResult visitNumberNode(NumberNode node, Context context) {
         if (node.getToken().getType().equals(TT_INT))
-            return new RunTimeResult().success(new LInt((int) node.getToken().getValue()).setContext(context).setPos(node.getPosStart(), node.getPosEnd()));
+            return RunTimeResult.shared().success(LInt.of((int) node.getToken().getValue()));
         else if (node.getToken().getType().equals(TT_FLOAT))
-            return new RunTimeResult().success(new LFloat((float) node.getToken().getValue()).setContext(context).setPos(node.getPosStart(), node.getPosEnd()));
-        return new RunTimeResult().failure(new Error.InvalidSyntaxError(node.getPosStart(), node.getPosEnd(), "Expected 'int' or 'float'"));
+            return RunTimeResult.shared().success(new LFloat((float) node.getToken().getValue()));
+        else if (node.getToken().getType().equals(TT_LONG))
+            return RunTimeResult.shared().success(LLong.of((long) node.getToken().getValue()));
+        else if (node.getToken().getType().equals(TT_DOUBLE))
+            return RunTimeResult.shared().success(new LDouble((double) node.getToken().getValue()));
+        return RunTimeResult.shared().failure(new Error.InvalidSyntaxError(node.getPosStart(), node.getPosEnd(), "Expected a number"));
     }
 
     public RunTimeResult visitStringNode(StringNode node, Context context) {
-        return new RunTimeResult().success(new LString((String) node.getToken().getValue(), context).setPos(node.getPosStart(), node.getPosEnd()));
+        return RunTimeResult.shared().success(LString.interpolate(node, context).setPos(node.getPosStart(), node.getPosEnd()));
     }
 
     public RunTimeResult visitListNode(ListNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
-        List<Value> vals = new ArrayList<>();
+        RunTimeResult res = RunTimeResult.shared();
+        List<Value> vals = new PackedList(node.getNodes().size());
         for (Node n : node.getNodes()) {
             vals.add(res.register(visit(n, context)));
             if (res.shouldReturn()) return res;
@@ -98,8 +143,8 @@ public class Interpreter {
     }
 
     public RunTimeResult visitMultilineNode(MultilineNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
-        List<Value> vals = new ArrayList<>();
+        RunTimeResult res = RunTimeResult.shared();
+        List<Value> vals = new PackedList(node.getNodes().size());
         for (Node n : node.getNodes()) {
             if (setOnlySymbols && context.getParent() == null) {
                 if (!(n instanceof FuncDefNode || n instanceof VarAssignNode || n instanceof FileImportNode || n instanceof ImportNode)) {
@@ -113,7 +158,7 @@ public class Interpreter {
     }
 
     public RunTimeResult visitMapNode(MapNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
+        RunTimeResult res = RunTimeResult.shared();
         HashMap<Value, Value> pairs = new HashMap<>();
         for (Tuple<Node, Node> tup : node.getPairs()) {
             pairs.put(res.register(visit(tup.getLeft(), context)), res.register(visit(tup.getRight(), context)));
@@ -123,28 +168,30 @@ public class Interpreter {
     }
 
     public RunTimeResult visitBinaryOperationNode(BinaryOperationNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
+        RunTimeResult res = RunTimeResult.shared();
         Value left = res.register(visit(node.getStartNode(), context));
         if (res.shouldReturn()) return res;
         Value right = res.register(visit(node.getEndNode(), context));
         if (res.shouldReturn()) return res;
+        BasicType number = LNumber.operate(node.getOperationToken().getType(), left, right);
+        if (number != null) return res.success(number);
         Tuple<BasicType, Error> result = left.apply(node.getOperationToken(), right);
         if (result == null)
             return res;
-        if (result.getRight() != null) return res.failure(result.getRight());
+        if (result.getRight() != null) return res.failure(result.getRight().locate(node.getEndNode().getPosStart(), node.getEndNode().getPosEnd(), context));
         return res.success(result.getLeft().setContext(context).setPos(node.getPosStart(), node.getPosEnd()));
     }
 
     public RunTimeResult visitUnaryOperationNode(UnaryOperationNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
+        RunTimeResult res = RunTimeResult.shared();
         Value val = res.register(visit(node.getNode(), context));
         if (res.shouldReturn()) return res;
 
         Tuple<BasicType, Error> result = null;
         if (node.getOperationToken().getType().equals(TT_MINUS)) {
-            result = val.apply(new Token(TT_MUL, null, node.getOperationToken().getPosStart(), node.getOperationToken().getPosEnd(), "*"), new LInt(-1));
+            result = val.apply(new Token(TT_MUL, null, node.getOperationToken().getPosStart(), node.getOperationToken().getPosEnd(), "*"), LInt.of(-1));
         } else if (node.getOperationToken().getType().equals(TT_BANG)) {
-            result = Tuple.of(new LBoolean(!(val.isTrue())).setContext(context).setPos(val.getPosStart(), val.getPosEnd()), null);
+            result = Tuple.of(LBoolean.of(!(val.isTrue())), null);
         }
 
         if (result != null) {
@@ -156,33 +203,35 @@ public class Interpreter {
     }
 
     public RunTimeResult visitVarAccessNode(VarAccessNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
+        RunTimeResult res = RunTimeResult.shared();
         String varName = (String) node.getToken().getValue();
         Value value;
         Context lastContext = null;
         if (node.getContext().size() == 0) {
             lastContext = context;
-            value = context.getSymbolTable().get(varName);
+            Symbol symbol = node.getSlot() < 0 ? null : context.getSymbolTable().getSlot(node.getDepth(), node.getSlot(), varName);
+            value = symbol != null ? symbol.getValue() : context.getSymbolTable().get(varName);
         } else {
             for (Token ctx : node.getContext()) {
-                if (lastContext == null) {
-                    if (context.getContainedByName(ctx.getValue().toString()) == null) {
-                        return res.failure(new Error.RunTimeError(ctx.getPosStart(), ctx.getPosEnd(), "'" + ctx.getValue().toString() + "' is not defined", context));
-                    }
-                    lastContext = context.getContainedByName(((String) ctx.getValue()));
-                } else {
-                    if (lastContext.getContainedByName(ctx.getValue().toString()) == null) {
-                        return res.failure(new Error.RunTimeError(ctx.getPosStart(), ctx.getPosEnd(), "'" + ctx.getValue().toString() + "' is not defined", context));
-                    }
-                    lastContext = lastContext.getContainedByName(((String) ctx.getValue()));
+                Context contained = (lastContext == null ? context : lastContext).getContainedByName((String) ctx.getValue());
+                if (contained == null) {
+                    return res.failure(new Error.RunTimeError(ctx.getPosStart(), ctx.getPosEnd(), "'" + ctx.getValue().toString() + "' is not defined", context));
                 }
+                lastContext = contained;
             }
             assert lastContext != null;
-            if (lastContext.getSymbolTable().getSymbolByName(varName) == null)
-                return res.failure(new Error.RunTimeError(node.getToken().getPosStart(), node.getToken().getPosEnd(), "'" + node.getContext().stream().map(token -> (String) token.getValue()).collect(Collectors.joining(".")) + "." + varName + "' is not defined", context));
-            if (!lastContext.getSymbolTable().getSymbolByName(varName).isAccessible())
+            // Members of class instances are cached by their slot in the class layout, which only needs to be checked against the name.
+            SymbolTable table = lastContext.getSymbolTable();
+            Symbol symbol = node.getMemberSlot() < 0 ? null : table.getSlot(0, node.getMemberSlot(), varName);
+            if (symbol == null) {
+                symbol = table.getSymbolByName(varName);
+                if (symbol == null)
+                    return res.failure(new Error.RunTimeError(node.getToken().getPosStart(), node.getToken().getPosEnd(), "'" + node.getContext().stream().map(token -> (String) token.getValue()).collect(Collectors.joining(".")) + "." + varName + "' is not defined", context));
+                node.setMemberSlot(table.indexOfSlot(symbol));
+            }
+            if (!symbol.isAccessible())
                 return res.failure(new Error.IllegalAccessError(node.getToken().getPosStart(), node.getToken().getPosEnd(), "'" + varName + "' is private in '" + node.getContext().stream().map(token -> (String) token.getValue()).collect(Collectors.joining(".")) + "'", context));
-            value = lastContext.getSymbolTable().get(varName);
+            value = symbol.getValue();
         }
         if (value == null) return res.failure(new Error.RunTimeError(node.getPosStart(), node.getPosEnd(), "'" + varName + "' is not defined", lastContext));
         value = value.copy().setPos(node.getPosStart(), node.getPosEnd()).setContext(lastContext);
@@ -190,15 +239,32 @@ public class Interpreter {
     }
 
     public RunTimeResult visitVarAssignNode(VarAssignNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
+        RunTimeResult res = RunTimeResult.shared();
 
         Value value = res.register(visit(node.getValueNode(), context));
         if (res.shouldReturn()) return res;
         return visitVarAssignNode(node, value, context);
     }
 
+    /**
+     * Assigns an already evaluated Value to the variable of a VarAssignNode.
+     * Errors about the Value are located at the Node it was evaluated from, since numbers and booleans have no Position of their own.
+     * @param node - The VarAssignNode to interpret.
+     * @param value - The Value to assign.
+     * @param context - The Context of the provided Node.
+     * @return an RTResult, containing either the assigned Value or an Error.
+     */
     public RunTimeResult visitVarAssignNode(VarAssignNode node, Value value, Context context) {
-        RunTimeResult res = new RunTimeResult();
+        RunTimeResult res = assign(node, value, context);
+        if (res.hasError()) {
+            Node valueNode = node.getValueNode() != null ? node.getValueNode() : node;
+            res.getError().locate(valueNode.getPosStart(), valueNode.getPosEnd(), context);
+        }
+        return res;
+    }
+
+    private RunTimeResult assign(VarAssignNode node, Value value, Context context) {
+        RunTimeResult res = RunTimeResult.shared();
         String varName = (String) node.getToken().getValue();
 
         Context lastContext = null;
@@ -239,6 +305,8 @@ public class Interpreter {
                 Error err = lastContext.getSymbolTable().set(expectedType, varName, value, node.getMods());
                 if (err != null)
                     return res.failure(err);
+                if (node.getSlot() >= 0)
+                    lastContext.getSymbolTable().setSlot(node.getSlot(), varName);
                 if (value.hasContext()) {
                     lastContext.addContainedContext(varName, value.getOwnContext());
                 }
@@ -250,12 +318,16 @@ public class Interpreter {
                     Error err = lastContext.getSymbolTable().set(expectedType, varName, value, node.getMods());
                     if (err != null)
                         return res.failure(err);
+                    if (node.getSlot() >= 0)
+                        lastContext.getSymbolTable().setSlot(node.getSlot(), varName);
                     return res.success(value);
                 } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
                     e.printStackTrace();
                 }
             }
             return res.failure(new Error.RunTimeError(value.getPosStart(), value.getPosEnd(), "Wrong type; Expected '" + expectedType + "', got '" + value.getType() + "'", context));
+        } else if (node.getSlot() >= 0 && assignToSlot(node, value, lastContext)) {
+            return res.success(value);
         } else if (lastContext.getSymbolTable().hasVar(varName)) {
 
             Error err = lastContext.getSymbolTable().set(null, varName, value, null);
@@ -280,9 +352,23 @@ public class Interpreter {
         return res.failure(new Error.RunTimeError(node.getPosStart(), node.getPosEnd(), "Type not defined. Use 'var' or 'const' for dynamic typing.", context));
     }
 
+    /**
+     * Assigns a Value to a resolved variable through its slot, if the assignment needs no type conversion.
+     * @param node - The VarAssignNode being interpreted.
+     * @param value - The Value to assign.
+     * @param context - The Context of the provided Node.
+     * @return True if the Value was assigned; otherwise, false, and the assignment must be done by name.
+     */
+    private boolean assignToSlot(VarAssignNode node, Value value, Context context) {
+        Symbol symbol = context.getSymbolTable().getSlot(node.getDepth(), node.getSlot(), (String) node.getToken().getValue());
+        if (symbol == null || !symbol.canEdit() || !symbol.typeEquals(value.getType())) return false;
+        symbol.setValue(value);
+        return true;
+    }
+
     public RunTimeResult visitValueListNode(ValueListNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
-        List<Value> list = new ArrayList<>();
+        RunTimeResult res = RunTimeResult.shared();
+        List<Value> list = new PackedList(node.getNodes().size());
         for (Node n : node.getNodes()) {
             Value val = res.register(visit(n, context));
             if (res.hasError()) return res;
@@ -292,7 +378,7 @@ public class Interpreter {
     }
 
     public RunTimeResult visitVarListAssignNode(VarListAssignNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
+        RunTimeResult res = RunTimeResult.shared();
         List<Tuple<Token, Token>> vars = node.getVars();
         Value value = res.register(visit(node.getValueNode(), context));
         if (res.shouldReturn()) return res;
@@ -301,7 +387,7 @@ public class Interpreter {
             if (((LList) value).getElements().get(0) instanceof LList) value = ((LList) value).getElements().get(0);
             if (((LList) value).getElements().size() == 1 && node.isAllSameType()) {
                 for (int i = 0; i < node.getVars().size(); i++) {
-                    VarAssignNode n = new VarAssignNode(vars.get(i).getLeft(), vars.get(i).getRight(), null, ModifierList.getDefault());
+                    VarAssignNode n = new VarAssignNode(vars.get(i).getLeft(), vars.get(i).getRight(), node.getValueNode(), ModifierList.getDefault());
                     res.register(visitVarAssignNode(n, ((LList) value).getElements().get(0), context));
                     if (res.hasError()) return res;
                 }
@@ -310,7 +396,7 @@ public class Interpreter {
             if (((LList) value).getElements().size() != vars.size())
                 return res.failure(new Error.RunTimeError(value.getPosStart(), value.getPosEnd(), "Wrong number of values to set; Expected " + vars.size() + ", got " + ((LList) value).getElements().size(), context));
             for (int i = 0; i < ((LList) value).getElements().size(); i++) {
-                VarAssignNode n = new VarAssignNode(vars.get(i).getLeft(), vars.get(i).getRight(), null, ModifierList.getDefault());
+                VarAssignNode n = new VarAssignNode(vars.get(i).getLeft(), vars.get(i).getRight(), node.getValueNode(), ModifierList.getDefault());
                 res.register(visitVarAssignNode(n, ((LList) value).getElements().get(i), context));
                 if (res.hasError()) return res;
             }
@@ -320,7 +406,7 @@ public class Interpreter {
     }
 
     public RunTimeResult visitConditionalNode(ConditionalNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
+        RunTimeResult res = RunTimeResult.shared();
         for (Tuple<Tuple<Node, Node>, Boolean> cond : node.getCases()) {
             Tuple<Node, Node> condition = cond.getLeft();
             Value conditionVal = res.register(visit(condition.getLeft(), context));
@@ -345,7 +431,7 @@ public class Interpreter {
     }
 
     public RunTimeResult visitForNode(ForNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
+        RunTimeResult res = RunTimeResult.shared();
         LInt stepValue;
         Context loopContext = new Context("<anonymous for loop>", context, node.getPosStart(), false);
         loopContext.setSymbolTable(new SymbolTable(context.getSymbolTable(), loopContext));
@@ -353,53 +439,60 @@ public class Interpreter {
         Value start = res.register(visit(node.getStartValueNode(), context));
         if (res.shouldReturn()) return res;
         if (!(start instanceof LInt))
-            return res.failure(new Error.RunTimeError(start.getPosStart(), start.getPosEnd(), "Expected int value", context));
+            return res.failure(new Error.RunTimeError(node.getStartValueNode().getPosStart(), node.getStartValueNode().getPosEnd(), "Expected int value", context));
         LInt startValue = (LInt) start;
 
         Value end = res.register(visit(node.getEndValueNode(), context));
         if (res.shouldReturn()) return res;
         if (!(end instanceof LInt))
-            return res.failure(new Error.RunTimeError(end.getPosStart(), end.getPosEnd(), "Expected int value", context));
+            return res.failure(new Error.RunTimeError(node.getEndValueNode().getPosStart(), node.getEndValueNode().getPosEnd(), "Expected int value", context));
         LInt endValue = (LInt) end;
 
         if (node.getStepNode() != null) {
             Value step = res.register(visit(node.getStepNode(), context));
             if (res.shouldReturn()) return res;
             if (!(step instanceof LInt))
-                return res.failure(new Error.RunTimeError(step.getPosStart(), step.getPosEnd(), "Expected int value", context));
+                return res.failure(new Error.RunTimeError(node.getStepNode().getPosStart(), node.getStepNode().getPosEnd(), "Expected int value", context));
             stepValue = (LInt) step;
         } else
-            stepValue = new LInt(1);
-
-         int[] i = {startValue.getValue()};
-
-         Predicate<Void> condition;
-
-         if (stepValue.getValue() >= 0) {
-            condition = v -> i[0] < endValue.getValue();
-         } else {
-             condition = v -> i[0] > endValue.getValue();
-         }
-         context.getSymbolTable().set(((String) node.getVarTypeToken().getValue()), ((String) node.getVarNameToken().getValue()), new LInt(i[0]), ModifierList.getDefault());
-         while (condition.test(null)) {
-             context.getSymbolTable().set(null, ((String) node.getVarNameToken().getValue()), new LInt(i[0]), ModifierList.getDefault());
-             i[0] += stepValue.getValue();
+            stepValue = LInt.of(1);
+
+        String varName = (String) node.getVarNameToken().getValue();
+        SymbolTable table = context.getSymbolTable();
+        int i = startValue.intValue();
+        int endInt = endValue.intValue();
+        int stepInt = stepValue.intValue();
+        boolean ascending = stepInt >= 0;
+
+        boolean declared = table.getSymbolByName(varName) == null;
+        table.set((String) node.getVarTypeToken().getValue(), varName, LInt.of(i), ModifierList.getDefault());
+        if (node.getSlot() >= 0)
+            table.setSlot(node.getSlot(), varName);
+        // A newly declared int instance variable is counted in a primitive, and only boxed into its Symbol if the body may read it.
+        Symbol counter = declared ? table.getSymbolByName(varName) : null;
+        if (counter != null && !counter.typeEquals("int")) counter = null;
+        boolean updateCounter = node.isVarRead();
+        while (ascending ? i < endInt : i > endInt) {
+            if (counter == null)
+                table.set(null, varName, LInt.of(i), ModifierList.getDefault());
+            else if (updateCounter)
+                counter.setValue(LInt.of(i));
+            i += stepInt;
 
-             res.register(visit(node.getBodyNode(), loopContext));
-             if (!res.isLoopBreak() && !res.isLoopCont() && res.shouldReturn()) return res;
-             loopContext.getSymbolTable().removeAll();
-             if (res.isLoopCont())
-                 continue;
-             if (res.isLoopBreak())
-                 break;
-
-         }
-         context.getSymbolTable().remove((String) node.getVarNameToken().getValue());
-         return res.success(NullType.Void);
+            res.register(visit(node.getBodyNode(), loopContext));
+            if (!res.isLoopBreak() && !res.isLoopCont() && res.shouldReturn()) return res;
+            loopContext.getSymbolTable().removeAll();
+            if (res.isLoopCont())
+                continue;
+            if (res.isLoopBreak())
+                break;
+        }
+        table.remove(varName);
+        return res.success(NullType.Void);
     }
 
     public RunTimeResult visitWhileNode(WhileNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
+        RunTimeResult res = RunTimeResult.shared();
         Context loopContext = new Context("<anonymous while loop>", context, node.getPosStart(), false);
         loopContext.setSymbolTable(new SymbolTable(context.getSymbolTable(), loopContext));
 
@@ -423,67 +516,57 @@ public class Interpreter {
 
 
     public RunTimeResult visitFuncDefNode(FuncDefNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
-        List<ReturnNode> retNodes = node.getBodyNode().getNodes().stream().filter(n -> n instanceof ReturnNode).map(n -> (ReturnNode) n).collect(Collectors.toList());
-        List<String> retTypes = node.getReturnTypes();
-
+        RunTimeResult res = RunTimeResult.shared();
         String funcName = null;
         if (node.getVarNameToken() != null)
             funcName = (String) node.getVarNameToken().getValue();
         Node bodyNode = node.getBodyNode();
         List<String> returnTypes = node.getReturnTypes();
         List<Tuple<String, String>> argNames = node.getArgTokens().stream().map(t -> Tuple.of((String) t.getLeft().getValue(), (String) t.getRight().getValue())).collect(Collectors.toList());
-        Value funcValue = new LFunction(funcName, bodyNode, argNames, returnTypes).setContext(context).setPos(node.getPosStart(), node.getPosEnd());
+        LFunction funcValue = (LFunction) new LFunction(funcName, bodyNode, argNames, returnTypes).setContext(context).setPos(node.getPosStart(), node.getPosEnd());
+        if (node.getMods().isMemo()) funcValue.memoize();
 
+        Error error = new ReturnTypeChecker(node, context).check();
+        if (error != null)
+            return res.failure(error);
         if (funcName != null)
             context.getSymbolTable().set("function", funcName, funcValue, node.getMods());
-        for (ReturnNode retNode : retNodes) {
-            if (retNode.getNodesToCall().size() != retTypes.size() && !(retNode.getNodesToCall().size() == 0 && retTypes.size() == 1 && retTypes.get(0).equals("void"))) {
-                context.getSymbolTable().remove(funcName);
-                return res.failure(new Error.RunTimeError(retNode.getPosStart(), retNode.getPosEnd(), "Wrong number of return types; Expected " + retTypes.size() + ", got " + retNodes.size(), context));
-            }
-            List<Node> sampleParams = node.getArgTokens().stream().map(tokenTokenTuple -> BasicType.getDefaultValue(tokenTokenTuple.getLeft().getValue().toString(), retNode.getPosStart())).collect(Collectors.toList());
-            Value val = res.register(visit(new CallNode(new VarAccessNode(new Token(TT_IDENTIFIER, funcName, funcValue.getPosStart(), funcValue.getPosEnd().copy(), null)), sampleParams), context));
-            List<Value> vals = new ArrayList<>();
-            if (val instanceof LList)
-                vals.addAll(((LList) val).getElements());
-            else vals.add(val);
-            for (int i = 0, retValSize = retNode.getNodesToCall().size(); i < retValSize; i++) {
-                Node n = retNode.getNodesToCall().get(i);
-                if (!Symbol.typeEquals(retTypes.get(i), vals.get(i).getType(), context)) {
-                    context.getSymbolTable().remove(funcName);
-                    return res.failure(new Error.RunTimeError(n.getPosStart(), n.getPosEnd(), "Wrong type; Expected '" + retTypes.get(i) + "', got '" + vals.get(i).getType() + "'", context));
-                }
-            }
-        }
-        if (retNodes.size() == 0 && (retTypes.size() > 1 && retTypes.get(0).equals("void"))) {
-            context.getSymbolTable().remove(funcName);
-            return res.failure(new Error.RunTimeError(node.getPosStart(), node.getPosEnd(), "Wrong number of return types; Expected " + retTypes.size() + ", got 0", context));
-        }
 
         return res.success(funcValue);
     }
 
     public RunTimeResult visitCallNode(CallNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
-        List<Value> args = new ArrayList<>();
+        RunTimeResult res = RunTimeResult.shared();
+        List<Value> args = new ArrayList<>(node.getArgNodes().size());
         Value valueToCall = res.register(visit(node.getNodeToCall(), context));
         if (res.shouldReturn()) return res;
-        valueToCall = valueToCall.copy().setPos(node.getPosStart(), node.getPosEnd()).setContext(valueToCall.getContext());
 
         for (Node argNode : node.getArgNodes()) {
             args.add(res.register(visit(argNode, context)));
             if (res.shouldReturn()) return res;
         }
 
-        Value returnVal = res.register(valueToCall.execute(args));
+        Value returnVal = res.register(call(valueToCall, args, node));
         if (res.shouldReturn()) return res;
         returnVal = returnVal.copy().setContext(context).setPos(node.getPosStart(), node.getPosEnd());
         return res.success(returnVal);
     }
 
+    /**
+     * Calls a Value from a CallNode. User functions are called with the Positions of the call directly, while other Values are copied to hold them.
+     * @param valueToCall - The Value being called.
+     * @param args - The evaluated args of the call.
+     * @param node - The CallNode making the call.
+     * @return An RTResult containing either the returned Value or an Error.
+     */
+    private RunTimeResult call(Value valueToCall, List<Value> args, CallNode node) {
+        if (valueToCall instanceof LFunction)
+            return ((LFunction) valueToCall).call(args, node.getPosStart(), node.getPosEnd());
+        return valueToCall.copy().setPos(node.getPosStart(), node.getPosEnd()).setContext(valueToCall.getContext()).execute(args);
+    }
+
     public RunTimeResult visitIndexNode(IndexNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
+        RunTimeResult res = RunTimeResult.shared();
         Value left = res.register(visit(node.getLeft(), context));
         if (res.shouldReturn()) return res;
         Value startIndex = res.register(visit(node.getStartIndex(), context));
@@ -491,12 +574,12 @@ public class Interpreter {
         Value endIndex = res.register(visit(node.getEndIndex(), context));
         if (res.shouldReturn()) return res;
         Tuple<Value, Error> result = left.elementAt(startIndex, endIndex);
-        if (result.getRight() != null) return res.failure(result.getRight());
+        if (result.getRight() != null) return res.failure(locateIndexError(result.getRight(), node.getStartIndex(), node.getEndIndex(), context));
         return res.success(result.getLeft());
     }
 
     public RunTimeResult visitSetIndexNode(SetIndexNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
+        RunTimeResult res = RunTimeResult.shared();
         Value left = res.register(visit(node.getLeft(), context));
         if (res.shouldReturn()) return res;
         Value startIndex = res.register(visit(node.getStartIndex(), context));
@@ -506,20 +589,47 @@ public class Interpreter {
         Value value = res.register(visit(node.getVal(), context));
         if (res.shouldReturn()) return res;
         Tuple<Value, Error> result = left.setElementAt(startIndex, value);
-        if (result.getRight() != null) return res.failure(result.getRight());
+        if (result.getRight() != null) return res.failure(locateIndexError(result.getRight(), node.getStartIndex(), node.getEndIndex(), context));
         return res.success(result.getLeft());
     }
 
+    /**
+     * Locates an Error raised by indexing at the index Nodes, since int indices have no Position of their own.
+     * @param error - The Error raised by indexing.
+     * @param startIndex - The start index Node, which may be null.
+     * @param endIndex - The end index Node, which may be null.
+     * @param context - The Context of the indexing Node.
+     * @return the located Error.
+     */
+    private Error locateIndexError(Error error, Node startIndex, Node endIndex, Context context) {
+        Node start = startIndex != null ? startIndex : endIndex;
+        Node end = endIndex != null ? endIndex : startIndex;
+        if (start == null) return error;
+        return error.locate(start.getPosStart(), end.getPosEnd(), context);
+    }
+
     public RunTimeResult visitContinueNode(ContinueNode node, Context context) {
-        return new RunTimeResult().successCont();
+        return RunTimeResult.shared().successCont();
     }
 
     public RunTimeResult visitReturnNode(ReturnNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
+        RunTimeResult res = RunTimeResult.shared();
+        if (node.getTailCallOf() != null) {
+            CallNode call = (CallNode) node.getNodesToCall().get(0);
+            Value valueToCall = res.register(visit(call.getNodeToCall(), context));
+            if (res.shouldReturn()) return res;
+            List<Value> args = new ArrayList<>(call.getArgNodes().size());
+            for (Node argNode : call.getArgNodes()) {
+                args.add(res.register(visit(argNode, context)));
+                if (res.shouldReturn()) return res;
+            }
+            return returnCall(node, valueToCall, args, context);
+        }
         List<Value> retVals = new ArrayList<>();
         if (node.getNodesToCall().size() != 0) {
             for (Node n : node.getNodesToCall()) {
                 retVals.add(res.register(visit(n, context)));
+                if (res.shouldReturn()) return res;
             }
         }
         if (retVals.size() == 1) {
@@ -531,19 +641,50 @@ public class Interpreter {
         return res.successRet(new LList(retVals));
     }
 
+    /**
+     * Finishes a return statement marked as a tail call, once the Value being called and its args have been evaluated.
+     * If the call is not to the function the statement is in, the Value is called as by visitCallNode, so that the call is not evaluated twice.
+     * @param node - The return statement.
+     * @param valueToCall - The Value being called.
+     * @param args - The evaluated args of the call.
+     * @param context - The Context of the return statement.
+     * @return An RTResult containing either the args of the tail call, the returned Value, or an Error.
+     */
+    private RunTimeResult returnCall(ReturnNode node, Value valueToCall, List<Value> args, Context context) {
+        RunTimeResult res = RunTimeResult.shared();
+        if (isTailCall(node, valueToCall)) return res.successTailCall(args);
+        CallNode call = (CallNode) node.getNodesToCall().get(0);
+        Value returnVal = res.register(call(valueToCall, args, call));
+        if (res.hasError()) res.getError().locate(call.getPosStart(), call.getPosEnd(), context);
+        if (res.shouldReturn()) return res;
+        returnVal = returnVal.copy().setContext(context).setPos(call.getPosStart(), call.getPosEnd());
+        return res.successRet(returnVal);
+    }
+
+    /**
+     * Checks whether a return statement marked as a tail call is calling the function it is in, with the right number of args, so that the call can reuse the function's frame.
+     * @param node - The return statement.
+     * @param valueToCall - The Value being called.
+     * @return True if the function's body can be run again in place of the call.
+     */
+    boolean isTailCall(ReturnNode node, Value valueToCall) {
+        return valueToCall instanceof LFunction && ((LFunction) valueToCall).getBodyNode() == node.getTailCallOf()
+                && ((LFunction) valueToCall).getArgNames().size() == ((CallNode) node.getNodesToCall().get(0)).getArgNodes().size();
+    }
+
     public RunTimeResult visitBreakNode(BreakNode node, Context context) {
-        return new RunTimeResult().successBreak();
+        return RunTimeResult.shared().successBreak();
     }
 
     public RunTimeResult visitImportNode(ImportNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
+        RunTimeResult res = RunTimeResult.shared();
         Path path = Paths.get(Shell.baseDir, node.getFileName().getValue() + ".ls");
         if (!Files.exists(path)) return res.failure(new Error.FileAccessError(node.getFileName().getPosStart(), node.getFileName().getPosEnd(), "File not found: '" + path.toAbsolutePath() + "'", context));
         try {
             Tuple<Context, Error> resCtx = Shell.runInternal(path.getFileName().toString(), String.join("\n", Files.readAllLines(path)), true);
             if (resCtx.getRight() != null) return res.failure(resCtx.getRight());
             if (node.importAll()) {
-                resCtx.getLeft().getSymbolTable().symbols.forEach(symbol -> {
+                resCtx.getLeft().getSymbolTable().getSymbols().forEach(symbol -> {
                     if (!Shell.GLOBAL_SYMBOL_TABLE.hasVar(symbol.getName())) {
                         ModifierList modifierList = new ModifierList();
                         if (symbol.isAccessible()) modifierList.addModByString("pub");
@@ -583,7 +724,7 @@ public class Interpreter {
     }
 
     public RunTimeResult visitFileImportNode(FileImportNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
+        RunTimeResult res = RunTimeResult.shared();
         Path path;
         try {
             path = Paths.get(Shell.baseDir, node.getFileName().getValue() + ".ls");
@@ -594,7 +735,7 @@ public class Interpreter {
         try {
             Tuple<Context, Error> resCtx = Shell.runInternal(path.getFileName().toString(), String.join("\n", Files.readAllLines(path)), true);
             if (resCtx.getRight() != null) return res.failure(resCtx.getRight());
-            for (Symbol s : resCtx.getLeft().getSymbolTable().symbols) {
+            for (Symbol s : resCtx.getLeft().getSymbolTable().getSymbols()) {
                 s.setImmutable();
             }
             context.addContainedContext(node.getName(), resCtx.getLeft());
@@ -610,11 +751,11 @@ public class Interpreter {
     }
 
     public RunTimeResult visitClassNode(ClassNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
+        RunTimeResult res = RunTimeResult.shared();
         String name = ((String) node.getVarName().getValue());
         Context classCtx = new Context(name, context, node.getPosStart(), false);
         classCtx.setSymbolTable(new SymbolTable());
-        List<FuncDefNode> methods = new ArrayList<>();
+        List<Tuple<LFunction, ModifierList>> methods = new ArrayList<>();
         List<LFunction> statMethods = new ArrayList<>();
         List<Value> statics = new ArrayList<>();
         List<VarNode> fields = new ArrayList<>();
@@ -643,18 +784,13 @@ public class Interpreter {
                 if (res.shouldReturn()) return res;
                 statMethods.add((LFunction) v);
             } else {
-                res.register(visit(n, classCtx));
+                // Methods are defined once here, and shared by every instance through the class's method table.
+                Value v = res.register(visit(n, classCtx));
                 if (res.shouldReturn()) return res;
                 classCtx.getSymbolTable().remove(n.getVarNameToken().getValue().toString());
-                methods.add(n);
+                methods.add(Tuple.of((LFunction) v, n.getMods()));
             }
         }
-        if (node.getExtendNode() != null) {
-            LClass clazz = (LClass) res.register(visit(node.getExtendNode(), context));
-            if (res.shouldReturn()) return res;
-            statMethods.addAll(clazz.getStatMethods());
-            statics.addAll(clazz.getStaticVars());
-        }
         LClass ext = null;
         if (node.getExtendNode() != null) {
             Node n = node.getExtendNode();
@@ -662,6 +798,18 @@ public class Interpreter {
             if (res.shouldReturn()) return res;
             if (!(val instanceof LClass)) return res.failure(new Error.RunTimeError(n.getPosStart(), n.getPosEnd(), "Expected class type; got " + val.getType(), context));
             ext = (LClass) val;
+            statMethods.addAll(ext.getStatMethods());
+            statics.addAll(ext.getStaticVars());
+            // Inherited methods and fields are added to the layout unless this class defines a member with the same name.
+            Set<String> names = new HashSet<>();
+            for (VarNode field : fields) names.add(field.getName());
+            for (Tuple<LFunction, ModifierList> method : methods) names.add(method.getLeft().getName());
+            for (Tuple<LFunction, ModifierList> method : ext.getMethods()) {
+                if (names.add(method.getLeft().getName())) methods.add(method);
+            }
+            for (VarNode field : ext.getFields()) {
+                if (names.add(field.getName())) fields.add(field);
+            }
         }
         LClass cls = (LClass) new LClass(name, constructor, statMethods, methods, statics, fields, ext).setContext(context).setPos(node.getPosStart(), node.getPosEnd());
         Error err = context.addClass(cls, classCtx, node.getMods());
@@ -670,72 +818,32 @@ public class Interpreter {
     }
 
     public RunTimeResult visitInstanceNode(InstanceNode node, Context context) {
-        RunTimeResult res = new RunTimeResult();
+        RunTimeResult res = RunTimeResult.shared();
         String name = node.getCls().getValue().toString();
         if (!context.hasType(name)) {
             return res.failure(new Error.RunTimeError(node.getCls().getPosStart(), node.getCls().getPosEnd(), "Class '" + name + "' not defined", context));
         }
-        Context c = new Context(name + "@" + Utilities.generateHex(8), context, node.getPosStart(), true);
-        c.setSymbolTable(new SymbolTable(context.getSymbolTable(), c));
         LClass lClass = (LClass) context.getSymbolTable().get(name);
-        for (VarNode field : lClass.getFields()) {
-            res.register(visit(field, c));
-            if (res.shouldReturn()) {
-                return res;
-            }
-        }
-        for (FuncDefNode method : lClass.getMethods()) {
-            res.register(visit(method, c));
-            if (res.shouldReturn()) {
-                return res;
-            }
-        }
-        Value val = new Value(name, c) {
-            @Override
-            public LBoolean equalTo(Value other) {
-                return (LBoolean) new LBoolean(false).setPos(posStart, posEnd).setContext(context);
-            }
-
-            @Override
-            public LBoolean notEqualTo(Value other) {
-                return (LBoolean) new LBoolean(true).setPos(posStart, posEnd).setContext(context);
-            }
-
-            @Override
-            public String toString() {
-                Value val = c.getSymbolTable().get("toString");
-                if (val instanceof LFunction && ((LFunction) val).getArgNames().size() == 0 && c.getSymbolTable().getSymbolByName("toString").isAccessible() && ((LFunction) val).getRetTypes().size() == 1 && ((LFunction) val).getRetTypes().get(0).equals("str")) {
-                    RunTimeResult res = new RunTimeResult();
-                    Value str = res.register(val.execute(Collections.emptyList()));
-                    if (res.shouldReturn()) return c.getDisplayName();
-                    return str.toString();
-                }
-                return c.getDisplayName();
-            }
-        };
-        val.setOwnContext(c);
-        List<Value> args = new ArrayList<>();
+        List<Value> args = new ArrayList<>(node.getArgNodes().size());
         for (Node n : node.getArgNodes()) {
-            args.add(res.register(visit(n, c)));
+            args.add(res.register(visit(n, context)));
+            if (res.shouldReturn()) return res;
         }
-        if (lClass.getThisExtends() != null) {
-            for (FuncDefNode m : lClass.getThisExtends().getMethods()) {
-                if (!c.getSymbolTable().hasVar(m.getVarNameToken().getValue().toString())) {
-                    res.register(visit(m, c));
-                    if (res.shouldReturn()) return res;
-                }
-            }
-            for (VarNode n : lClass.getThisExtends().getFields()) {
-                if (!c.getSymbolTable().hasVar(n.getName())) {
-                    res.register(visit(n, c));
-                    if (res.shouldReturn()) return res;
-                }
-            }
+        Context c = new Context(lClass.nextInstanceName(), context, node.getPosStart(), true);
+        c.setSymbolTable(new SymbolTable(context.getSymbolTable(), c));
+        // Only the fields are stored in the instance; its methods are found in the class's method table, and bound to the instance when they are accessed.
+        c.getSymbolTable().setMethods(lClass.getMethodTable());
+        // Each field is stored in the slot of its position in the class layout, so member accesses can cache the slot for all instances.
+        int slot = 0;
+        for (VarNode field : lClass.getFields()) {
+            res.register(visit(field, c));
+            if (res.shouldReturn()) return res;
+            c.getSymbolTable().setSlot(slot++, field.getName());
         }
         res.register(lClass.getConstructor().execute(args, c));
         if (res.shouldReturn()) {
             return res;
         }
-        return res.success(val.setContext(context).setPos(node.getPosStart(), node.getPosEnd()));
+        return res.success(new LInstance(name, c).setContext(context).setPos(node.getPosStart(), node.getPosEnd()));
     }
 }
@@ -12,11 +12,13 @@ public class ModifierList {
     private Privacy priv;
     private Boolean stat;
     private Boolean fin;
+    private Boolean memo;
 
     public ModifierList() {
         priv = null;
         stat = null;
         fin = null;
+        memo = null;
     }
 
     public static ModifierList getDefault() {
@@ -29,6 +31,7 @@ public class ModifierList {
         if (priv == null) priv = Privacy.PUBLIC;
         if (stat == null) stat = false;
         if (fin == null) fin = false;
+        if (memo == null) memo = false;
     }
 
     public Privacy getPriv() {
@@ -43,6 +46,13 @@ public class ModifierList {
         return stat;
     }
 
+    /**
+     * @return True if the function defined with these modifiers caches its results by its args.
+     */
+    public boolean isMemo() {
+        return memo;
+    }
+
     public enum Privacy { PUBLIC, PRIVATE }
 
     public String addModByStringHarsh(String str) {
@@ -67,6 +77,13 @@ public class ModifierList {
             }
             return "Cannot use more than one final modifier";
         }
+        if (str.equals("memo")) {
+            if (memo == null) {
+                memo = true;
+                return null;
+            }
+            return "Cannot use more than one memo modifier";
+        }
         return "Modifier not found: '" + str + "'";
     }
 
@@ -81,6 +98,7 @@ public class ModifierList {
         if (priv != null) i++;
         if (stat != null) i++;
         if (fin != null) i++;
+        if (memo != null) i++;
         return i;
     }
 }
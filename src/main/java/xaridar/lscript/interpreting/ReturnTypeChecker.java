@@ -0,0 +1,236 @@
+package xaridar.lscript.interpreting;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import xaridar.lscript.Constants;
+import xaridar.lscript.Tuple;
+import xaridar.lscript.TokenEnum;
+import xaridar.lscript.errors.Error;
+import xaridar.lscript.lexing.Token;
+import xaridar.lscript.parsing.nodes.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Checks the return statements of a function against its declared return types when the function is defined, without calling it.
+ * The types of returned expressions are inferred from literals, operations on numbers, and the declared types of the function's arguments and local variables.
+ * An expression whose type cannot be known before it runs, such as a call or a variable from outside the function, is not checked.
+ */
+public class ReturnTypeChecker {
+    private static final List<String> NUMBER_TYPES = Arrays.asList("int", "long", "float", "double");
+    private static final List<TokenEnum> COMPARISONS = Arrays.asList(TokenEnum.TT_LT, TokenEnum.TT_GT, TokenEnum.TT_LEQ, TokenEnum.TT_GEQ, TokenEnum.TT_BOOLEQ, TokenEnum.TT_NEQ);
+
+    private final Map<Class<? extends Node>, Function<Node, Set<String>>> inferrers;
+    private final FuncDefNode funcDef;
+    private final Context context;
+    private final List<ReturnNode> returnNodes = new ArrayList<>();
+    private Map<String, Set<String>> locals = new HashMap<>();
+    private Error error;
+
+    /**
+     * @param funcDef - The definition of the function to check.
+     * @param context - The Context the function is being defined in.
+     */
+    public ReturnTypeChecker(FuncDefNode funcDef, Context context) {
+        this.funcDef = funcDef;
+        this.context = context;
+        inferrers = new HashMap<>();
+        addInferrer(NumberNode.class, node -> {
+            switch (node.getToken().getType()) {
+                case TT_INT:
+                    return Collections.singleton("int");
+                case TT_LONG:
+                    return Collections.singleton("long");
+                case TT_FLOAT:
+                    return Collections.singleton("float");
+                case TT_DOUBLE:
+                    return Collections.singleton("double");
+                default:
+                    return null;
+            }
+        });
+        addInferrer(StringNode.class, node -> Collections.singleton("str"));
+        addInferrer(ListNode.class, node -> Collections.singleton("list"));
+        addInferrer(MapNode.class, node -> Collections.singleton("map"));
+        addInferrer(VarAccessNode.class, node -> node.getContext().size() == 0 ? locals.get((String) node.getToken().getValue()) : null);
+        addInferrer(BinaryOperationNode.class, this::inferBinaryOperationNode);
+        addInferrer(UnaryOperationNode.class, node -> {
+            Set<String> types = infer(node.getNode());
+            return node.getOperationToken().getType() == TokenEnum.TT_MINUS && isNumeric(types) ? types : null;
+        });
+    }
+
+    /**
+     * Registers the method inferring the possible types of a type of Node.
+     * @param nodeClass - The class of Node handled by the method.
+     * @param inferrer - The method returning the possible types of a Node's Value, or null if they cannot be known.
+     * @param <T> - The type of Node handled by the method.
+     */
+    private <T extends Node> void addInferrer(Class<T> nodeClass, Function<T, Set<String>> inferrer) {
+        inferrers.put(nodeClass, node -> inferrer.apply(nodeClass.cast(node)));
+    }
+
+    /**
+     * Checks every return statement in the function body, not including those of nested functions and classes.
+     * @return an Error for the first return statement that returns the wrong number of Values, or a Value which can never match its declared type; or null if none do.
+     */
+    public Error check() {
+        List<String> retTypes = funcDef.getReturnTypes();
+        for (Tuple<Token, Token> arg : funcDef.getArgTokens()) {
+            locals.put((String) arg.getRight().getValue(), argumentTypes((String) arg.getLeft().getValue()));
+        }
+        visit(funcDef.getBodyNode());
+        if (error != null) return error;
+        if (returnNodes.size() == 0 && (retTypes.size() > 1 && retTypes.get(0).equals("void")))
+            return new Error.RunTimeError(funcDef.getPosStart(), funcDef.getPosEnd(), "Wrong number of return types; Expected " + retTypes.size() + ", got 0", context);
+        return null;
+    }
+
+    /**
+     * Walks the statements of the function body in order, tracking the types of declared variables and checking return statements as they are reached.
+     */
+    private void visit(Node node) {
+        if (node == null || error != null || node instanceof FuncDefNode || node instanceof ClassNode) return;
+        if (node instanceof MultilineNode) {
+            for (Node n : ((MultilineNode) node).getNodes()) visit(n);
+        } else if (node instanceof ListNode) {
+            for (Node n : ((ListNode) node).getNodes()) visit(n);
+        } else if (node instanceof ReturnNode) {
+            checkReturnNode((ReturnNode) node);
+        } else if (node instanceof VarAssignNode) {
+            VarAssignNode assign = (VarAssignNode) node;
+            if (assign.getType() != null && assign.getNestedContexts().size() == 0)
+                locals.put((String) assign.getToken().getValue(), declaredTypes((String) assign.getType().getValue()));
+        } else if (node instanceof VarListAssignNode) {
+            ((VarListAssignNode) node).getVars().forEach(var -> locals.put((String) var.getRight().getValue(), null));
+        } else if (node instanceof ConditionalNode) {
+            // Variables declared in a branch are only defined if that branch runs.
+            ConditionalNode conditional = (ConditionalNode) node;
+            for (Tuple<Tuple<Node, Node>, Boolean> aCase : conditional.getCases()) visitBranch(aCase.getLeft().getRight());
+            if (conditional.getElseCase() != null) visitBranch(conditional.getElseCase().getLeft());
+        } else if (node instanceof ForNode) {
+            // The instance variable is declared in the enclosing SymbolTable, and removed from it once the loop ends.
+            ForNode loop = (ForNode) node;
+            String name = (String) loop.getVarNameToken().getValue();
+            boolean declared = locals.containsKey(name);
+            Set<String> outerTypes = locals.put(name, Collections.singleton("int"));
+            visitScope(loop.getBodyNode());
+            if (declared) locals.put(name, outerTypes);
+            else locals.remove(name);
+        } else if (node instanceof WhileNode) {
+            visitScope(((WhileNode) node).getBodyNode());
+        }
+    }
+
+    /**
+     * Visits a loop body, whose variables are declared in a SymbolTable of its own.
+     */
+    private void visitScope(Node body) {
+        Map<String, Set<String>> outer = locals;
+        locals = new HashMap<>(outer);
+        visit(body);
+        locals = outer;
+    }
+
+    private void visitBranch(Node body) {
+        Map<String, Set<String>> outer = new HashMap<>(locals);
+        visit(body);
+        for (Map.Entry<String, Set<String>> local : locals.entrySet()) {
+            if (!outer.containsKey(local.getKey()) || outer.get(local.getKey()) != local.getValue()) local.setValue(null);
+        }
+    }
+
+    private void checkReturnNode(ReturnNode retNode) {
+        returnNodes.add(retNode);
+        List<String> retTypes = funcDef.getReturnTypes();
+        List<Node> nodes = retNode.getNodesToCall();
+        if (nodes.size() != retTypes.size() && !(nodes.size() == 0 && retTypes.size() == 1 && retTypes.get(0).equals("void"))) {
+            error = new Error.RunTimeError(retNode.getPosStart(), retNode.getPosEnd(), "Wrong number of return types; Expected " + retTypes.size() + ", got " + nodes.size(), context);
+            return;
+        }
+        for (int i = 0; i < nodes.size(); i++) {
+            Node n = nodes.get(i);
+            Set<String> types = infer(n);
+            if (types == null) continue;
+            String retType = retTypes.get(i);
+            if (types.stream().noneMatch(type -> Symbol.typeEquals(retType, type, context))) {
+                error = new Error.RunTimeError(n.getPosStart(), n.getPosEnd(), "Wrong type; Expected '" + retType + "', got '" + types.iterator().next() + "'", context);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Infers the types a Node's Value can have when it is interpreted.
+     * @param node - The Node to infer the type of.
+     * @return the possible types of the Node's Value, not including nullType; or null if they cannot be known before it runs.
+     */
+    private Set<String> infer(Node node) {
+        Function<Node, Set<String>> inferrer = inferrers.get(node.getClass());
+        return inferrer == null ? null : inferrer.apply(node);
+    }
+
+    private Set<String> inferBinaryOperationNode(BinaryOperationNode node) {
+        Set<String> left = infer(node.getStartNode());
+        Set<String> right = infer(node.getEndNode());
+        if (!isNumeric(left) || !isNumeric(right)) return null;
+        TokenEnum opType = node.getOperationToken().getType();
+        if (COMPARISONS.contains(opType)) return Collections.singleton("bool");
+        if (opType != TokenEnum.TT_PLUS && opType != TokenEnum.TT_MINUS && opType != TokenEnum.TT_MUL && opType != TokenEnum.TT_DIV && opType != TokenEnum.TT_MOD)
+            return null;
+        Set<String> types = new LinkedHashSet<>();
+        for (String l : left) {
+            for (String r : right) {
+                // Both operands are promoted to the wider type, and dividing integers gives a floating point number if the quotient is not whole.
+                String type = NUMBER_TYPES.get(Math.max(NUMBER_TYPES.indexOf(l), NUMBER_TYPES.indexOf(r)));
+                types.add(type);
+                if (opType == TokenEnum.TT_DIV && type.equals("int")) types.add("float");
+                if (opType == TokenEnum.TT_DIV && type.equals("long")) types.add("double");
+            }
+        }
+        return types;
+    }
+
+    private static boolean isNumeric(Set<String> types) {
+        return types != null && NUMBER_TYPES.containsAll(types);
+    }
+
+    /**
+     * @return the types a variable declared with the given type can hold, or null if it can hold any type.
+     */
+    private static Set<String> declaredTypes(String type) {
+        return Constants.getInstance().TYPES.get(type) == null ? null : Collections.singleton(type);
+    }
+
+    /**
+     * Finds the types of the Values an argument of the given type can be passed, after numbers are widened to the argument's type.
+     * @return the types the argument can hold, or null if it can hold any type.
+     */
+    private static Set<String> argumentTypes(String type) {
+        Map<String, List<String>> types = Constants.getInstance().TYPES;
+        if (types.get(type) == null) return null;
+        Set<String> argTypes = new LinkedHashSet<>();
+        argTypes.add(type);
+        for (Map.Entry<String, List<String>> valueType : types.entrySet()) {
+            if (valueType.getValue() == null || !valueType.getValue().contains(type)) continue;
+            if (NUMBER_TYPES.contains(valueType.getKey()) && (type.equals("long") || type.equals("double")))
+                argTypes.add(type);
+            else
+                argTypes.add(valueType.getKey());
+        }
+        return argTypes;
+    }
+}
@@ -10,12 +10,18 @@ package xaridar.lscript.interpreting;
 import xaridar.lscript.errors.Error;
 import xaridar.lscript.interpreting.types.Value;
 
+import java.util.List;
+
 /**
- * Manages results from interpreting, and holds a success Value, return Value from a function, break, continue, or Error as a result.
+ * Manages results from interpreting, and holds a success Value, return Value from a function, tail call, break, continue, or Error as a result.
+ * Interpreting is done through a single shared RTResult per thread, which each visit method fills in and returns to its caller, so evaluating a Node allocates no results.
+ * A caller must take what it needs from a returned RTResult before evaluating anything else.
  */
 public class RunTimeResult {
+    private static final ThreadLocal<RunTimeResult> SHARED = ThreadLocal.withInitial(RunTimeResult::new);
 
     private Value funcRetVal;
+    private List<Value> tailCallArgs;
     private Error error;
     private Value value;
     private boolean loopCont;
@@ -25,6 +31,13 @@ public class RunTimeResult {
         reset();
     }
 
+    /**
+     * @return the RTResult shared by everything interpreted on the current thread.
+     */
+    public static RunTimeResult shared() {
+        return SHARED.get();
+    }
+
     /**
      * Sets all of the RTResult variables to default values.
      */
@@ -32,21 +45,28 @@ public class RunTimeResult {
         error = null;
         value = null;
         funcRetVal = null;
+        tailCallArgs = null;
         loopBreak = false;
         loopCont = false;
     }
 
     /**
      * Registers another RTResult into the current RTResult, taking its Error, return Value, and booleans for breaking and continuing.
+     * Registering the shared RTResult into itself keeps its state as it is, so no fields need to be copied.
      * @param res - the RTResult to register
      * @return the registered RTResult's Value.
      */
     public Value register(RunTimeResult res) {
-        error = res.getError();
-        funcRetVal = res.getFuncRetVal();
-        loopCont = res.isLoopCont();
-        loopBreak = res.isLoopBreak();
-        return res.getValue();
+        Value registered = res.value;
+        if (res != this) {
+            error = res.error;
+            funcRetVal = res.funcRetVal;
+            tailCallArgs = res.tailCallArgs;
+            loopCont = res.loopCont;
+            loopBreak = res.loopBreak;
+        }
+        value = null;
+        return registered;
     }
 
     /**
@@ -71,6 +91,17 @@ public class RunTimeResult {
         return this;
     }
 
+    /**
+     * Registers a self-recursive tail call, which the function being run makes by running its body again with new args, and returns itself for registration.
+     * @param args - The args of the tail call.
+     * @return this RTResult, which can be registered later.
+     */
+    public RunTimeResult successTailCall(List<Value> args) {
+        reset();
+        this.tailCallArgs = args;
+        return this;
+    }
+
     /**
      * Registers a continue block and returns itself for registration.
      * @return this RTResult, which can be registered later.
@@ -96,7 +127,7 @@ public class RunTimeResult {
      * @return True if this RTResult has a value and should be returned.
      */
     public boolean shouldReturn() {
-        return error != null || funcRetVal != null || loopBreak || loopCont;
+        return error != null || funcRetVal != null || tailCallArgs != null || loopBreak || loopCont;
     }
 
     /**
@@ -138,6 +169,13 @@ public class RunTimeResult {
         return funcRetVal;
     }
 
+    /**
+     * @return The args of this RTResult's tail call, or null if it does not hold one.
+     */
+    public List<Value> getTailCallArgs() {
+        return tailCallArgs;
+    }
+
     /**
      * @return a boolean representing whether the RTResult should break.
      */
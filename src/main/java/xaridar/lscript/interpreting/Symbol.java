@@ -22,6 +22,7 @@ public class Symbol {
     private final boolean accessible;
     private final boolean stat;
     private final Context context;
+    private boolean released;
 
     /**
      * Default constructor for Symbol.
@@ -121,4 +122,28 @@ public class Symbol {
     public void setImmutable() {
         immutable = true;
     }
+
+    /**
+     * Marks this Symbol as no longer defined, so that its SymbolTable can reuse it for the next declaration of the same variable.
+     */
+    public void release() {
+        released = true;
+        value = null;
+    }
+
+    /**
+     * Defines a released Symbol again with a new Value.
+     * @param value - The Value to be stored in the Symbol.
+     */
+    public void redefine(Value value) {
+        released = false;
+        this.value = value;
+    }
+
+    /**
+     * @return True if this Symbol has been released, and its variable is not currently defined.
+     */
+    public boolean isReleased() {
+        return released;
+    }
 }
@@ -11,22 +11,32 @@ import xaridar.lscript.errors.Error;
 import xaridar.lscript.interpreting.types.Value;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * A table of variable names and values for accessing.
+ * Symbols are indexed by name in insertion order, so lookups do not depend on the number of variables in the table.
+ * Variables resolved ahead of time by the Resolver are also stored in an array of slots, which acts as the frame of this SymbolTable's Context.
+ * Loop bodies reset their SymbolTable on each iteration by releasing its Symbols, which are reused when the same variables are declared again.
+ * The SymbolTable of a class instance holds only its fields; its methods are found in a table shared by every instance of the class, which is searched before the parent.
  */
 public class SymbolTable {
-    List<Symbol> symbols;
+    Map<String, Symbol> symbols;
     SymbolTable parent;
     Context context;
+    Symbol[] slots;
+    boolean hasReleased;
+    SymbolTable methods;
 
     /**
      * Default constructor.
      */
     public SymbolTable() {
-        symbols = new ArrayList<>();
+        symbols = new LinkedHashMap<>();
         parent = null;
     }
 
@@ -36,16 +46,21 @@ public class SymbolTable {
      * @param context - This SymbolTable's Context.
      */
     public SymbolTable(SymbolTable parent, Context context) {
-        symbols = new ArrayList<>();
+        symbols = new LinkedHashMap<>();
         this.parent = parent;
         this.context = context;
     }
 
     /**
-     * @return This SymbolTable's stored list of Symbols.
+     * @return This SymbolTable's stored Symbols, in the order they were defined.
      */
-    public List<Symbol> getSymbols() {
-        return symbols;
+    public Collection<Symbol> getSymbols() {
+        if (!hasReleased) return symbols.values();
+        List<Symbol> defined = new ArrayList<>(symbols.size());
+        for (Symbol symbol : symbols.values()) {
+            if (!symbol.isReleased()) defined.add(symbol);
+        }
+        return defined;
     }
 
     /**
@@ -62,17 +77,22 @@ public class SymbolTable {
         return parent;
     }
 
+    /**
+     * @param methods - The methods of the class this SymbolTable holds the fields of an instance of, which are found as if they were defined in this SymbolTable.
+     */
+    public void setMethods(SymbolTable methods) {
+        this.methods = methods;
+    }
+
     /**
      * Accesses a variable in the Map by name, if it exists.
      * @param varName - The name of the variable or function to access.
      * @return The value of the stored variable with the provided name, if there is one. Returns null if a variable with the provided name cannot be found.
      */
     public Value get(String varName) {
-        Symbol value = getSymbolByName(varName);
-        if (value == null && parent != null) {
-            return parent.get(varName);
-        } else if (value != null) {
-            return value.getValue();
+        for (SymbolTable table = this; table != null; table = table.parent) {
+            Symbol symbol = table.findMember(varName);
+            if (symbol != null) return symbol.getValue();
         }
         return null;
     }
@@ -106,6 +126,7 @@ public class SymbolTable {
         if (symbol != null && symbol.canEdit()) {
             if (type == null || (ignoreRedefine && symbol.typeEquals(type))) {
                 if (symbol.typeEquals(value.getType())) {
+                    symbol = unshare(symbol);
                     symbol.setValue(value);
                     return null;
                 }
@@ -117,9 +138,8 @@ public class SymbolTable {
             if (mods.isStat()) {
                 moveUp(type, varName, value, mods);
             }
-            else {
-                Symbol s = new Symbol(varName, type, value, mods.isFin(), mods.getPriv() == ModifierList.Privacy.PUBLIC, mods.isStat(), context);
-                symbols.add(s);
+            else if (symbol == null) {
+                symbols.put(varName, define(varName, type, value, mods));
             }
         } else if (symbol != null && !symbol.canEdit()) {
             return new Error.IllegalAccessError(value.getPosStart(), value.getPosEnd(), "Variable '" + varName + "' is private in '" + symbol.getContext().getDisplayName() + "'", value.getContext());
@@ -132,7 +152,7 @@ public class SymbolTable {
      * @param varName - The name of the variable to remove.
      */
     public void remove(String varName) {
-        symbols.remove(getSymbolByName(varName));
+        clearSlot(symbols.remove(varName));
     }
 
     /**
@@ -140,7 +160,9 @@ public class SymbolTable {
      * @param names - A list of the names of the variables to remove.
      */
     public void removeAll(List<String> names) {
-        symbols.removeAll(names.stream().map(this::getSymbolByName).collect(Collectors.toList()));
+        for (String name : names) {
+            clearSlot(symbols.remove(name));
+        }
     }
 
     /**
@@ -164,32 +186,148 @@ public class SymbolTable {
             parent.moveUp(type, varName, value, mods);
         else {
             Symbol s = new Symbol(varName, type, value, mods.isFin(), mods.getPriv() == ModifierList.Privacy.PUBLIC, true, context);
-            symbols.add(s);
+            if (find(varName) == null) symbols.put(varName, s);
         }
     }
 
     /**
-     * Returns a Symbol from the List of Symbols via its name, or null if it does not exist.
+     * Returns a Symbol from this SymbolTable via its name, or null if it does not exist.
      * @param varName - The name of the variable to find.
-     * @return the first Symbol found in the list with the given name.
+     * @return the Symbol stored with the given name.
      */
     public Symbol getSymbolByName(String varName) {
-        return symbols.stream().filter(symbol -> symbol.getName().equals(varName)).findFirst().orElse(null);
+        return findMember(varName);
     }
 
     /**
-     * Returns a Symbol from the List of Symbols via its name, checking all parents, or null if it does not exist.
+     * Returns a Symbol from this SymbolTable via its name, checking all parents, or null if it does not exist.
      * @param varName - The name of the variable to find.
-     * @return the first Symbol found in the list with the given name.
+     * @return the closest Symbol found with the given name.
      */
     public Symbol getParentSymbolByName(String varName) {
-        if (parent != null && getSymbolByName(varName) == null) {
-            return parent.getParentSymbolByName(varName);
+        for (SymbolTable table = this; table != null; table = table.parent) {
+            Symbol symbol = table.findMember(varName);
+            if (symbol != null) return symbol;
         }
-        return symbols.stream().filter(symbol -> symbol.getName().equals(varName)).findFirst().orElse(null);
+        return null;
     }
 
+    /**
+     * Removes all variables from the SymbolTable, as is done between iterations of a loop.
+     * The Symbols are only released, so that the map entries and slots holding them are kept, and the Symbols can be defined again on the next iteration.
+     */
     public void removeAll() {
-        symbols.clear();
+        for (Symbol symbol : symbols.values()) {
+            symbol.release();
+        }
+        hasReleased = !symbols.isEmpty();
+    }
+
+    /**
+     * Stores a Symbol of this SymbolTable in a slot, so that resolved Nodes can access it without a lookup by name.
+     * @param index - The index of the slot, assigned by the Resolver.
+     * @param varName - The name of the variable to store in the slot.
+     */
+    public void setSlot(int index, String varName) {
+        Symbol symbol = find(varName);
+        if (symbol == null) return;
+        if (slots == null) {
+            slots = new Symbol[Math.max(index + 1, 8)];
+        } else if (index >= slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(index + 1, slots.length * 2));
+        }
+        slots[index] = symbol;
+    }
+
+    /**
+     * Accesses a resolved variable by its slot.
+     * The slot is only used if it still holds a Symbol with the expected name; otherwise the variable must be looked up by name.
+     * @param depth - The number of parents above this SymbolTable which hold the variable.
+     * @param index - The index of the slot.
+     * @param varName - The name of the variable.
+     * @return The Symbol in the slot, or null if the slot is empty or holds a different variable.
+     */
+    public Symbol getSlot(int depth, int index, String varName) {
+        SymbolTable table = this;
+        for (int i = 0; i < depth; i++) {
+            table = table.parent;
+            if (table == null) return null;
+        }
+        Symbol symbol = table.slot(index);
+        if (symbol == null && table.methods != null) symbol = table.methods.slot(index);
+        if (symbol == null || symbol.isReleased() || !symbol.getName().equals(varName)) return null;
+        return symbol;
+    }
+
+    /**
+     * Finds the slot holding a Symbol of this SymbolTable.
+     * @param symbol - The Symbol to find.
+     * @return The index of the slot holding the Symbol, or -1 if it is not in a slot.
+     */
+    public int indexOfSlot(Symbol symbol) {
+        if (slots != null) {
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] == symbol) return i;
+            }
+        }
+        return methods == null ? -1 : methods.indexOfSlot(symbol);
+    }
+
+    private Symbol slot(int index) {
+        return slots == null || index >= slots.length ? null : slots[index];
+    }
+
+    /**
+     * Finds a Symbol defined in this SymbolTable, ignoring any that have been released.
+     */
+    private Symbol find(String varName) {
+        Symbol symbol = symbols.get(varName);
+        return symbol == null || symbol.isReleased() ? null : symbol;
+    }
+
+    /**
+     * Finds a Symbol defined in this SymbolTable, or a method of the class whose instance's fields it holds.
+     */
+    private Symbol findMember(String varName) {
+        Symbol symbol = find(varName);
+        if (symbol == null && methods != null) return methods.find(varName);
+        return symbol;
+    }
+
+    /**
+     * Creates the Symbol for a new variable, reusing the released Symbol of a variable with the same name, type, and modifiers if there is one.
+     */
+    private Symbol define(String varName, String type, Value value, ModifierList mods) {
+        boolean accessible = mods.getPriv() == ModifierList.Privacy.PUBLIC;
+        Symbol released = symbols.get(varName);
+        if (released != null && released.getType().equals(type) && released.isImmutable() == mods.isFin() && released.isAccessible() == accessible && !released.isStatic()) {
+            released.redefine(value);
+            return released;
+        }
+        return new Symbol(varName, type, value, mods.isFin(), accessible, false, context);
+    }
+
+    /**
+     * Finds the Symbol to assign a variable through, so that a method reassigned in one instance is shadowed by a field of that instance, rather than changed for every instance of its class.
+     * @param symbol - The Symbol found for the variable.
+     * @return a new Symbol in the instance's SymbolTable if the given one is a shared method, or the given Symbol otherwise.
+     */
+    private Symbol unshare(Symbol symbol) {
+        for (SymbolTable table = this; table != null; table = table.parent) {
+            if (table.find(symbol.getName()) != null) return symbol;
+            if (table.methods != null && table.methods.find(symbol.getName()) == symbol) {
+                Symbol field = new Symbol(symbol.getName(), symbol.getType(), symbol.getValue(), false, symbol.isAccessible(), false, table.context);
+                table.symbols.put(symbol.getName(), field);
+                return field;
+            }
+        }
+        return symbol;
+    }
+
+    private void clearSlot(Symbol symbol) {
+        if (slots == null || symbol == null) return;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == symbol) slots[i] = null;
+        }
     }
 }
@@ -0,0 +1,165 @@
+package xaridar.lscript.interpreting.bytecode;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import xaridar.lscript.Tuple;
+import xaridar.lscript.interpreting.Context;
+import xaridar.lscript.interpreting.RunTimeResult;
+import xaridar.lscript.interpreting.types.LFloat;
+import xaridar.lscript.interpreting.types.LFunction;
+import xaridar.lscript.interpreting.types.LInt;
+import xaridar.lscript.interpreting.types.Value;
+import xaridar.lscript.parsing.nodes.Node;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * An optional execution tier, which compiles hot numeric LFunctions into JVM classes, each defined by a ClassLoader of its own so that it can be unloaded along with its function.
+ * Functions are only compiled once they have been called enough times, and only if they are pure functions of their int and float arguments;
+ * whenever a compiled function reaches something it cannot handle, it deoptimizes, and the call is run again by the Interpreter.
+ */
+public class BytecodeCompiler {
+    public static boolean enabled = Boolean.getBoolean("lscript.jit");
+    public static int threshold = Integer.getInteger("lscript.jit.threshold", 1000);
+
+    private static BytecodeCompiler instance;
+    private static final Deoptimization DEOPTIMIZATION = new Deoptimization();
+
+    private final Map<Node, Profile> profiles;
+    private final MethodHandles.Lookup lookup;
+
+    private BytecodeCompiler() {
+        profiles = new WeakHashMap<>();
+        lookup = MethodHandles.lookup();
+    }
+
+    /**
+     * @return the BytecodeCompiler singleton.
+     */
+    public static BytecodeCompiler getInstance() {
+        if (instance == null) instance = new BytecodeCompiler();
+        return instance;
+    }
+
+    /**
+     * Enables or disables the bytecode tier.
+     * @param enabled - Toggle for the bytecode tier.
+     */
+    public static void setEnabled(boolean enabled) {
+        BytecodeCompiler.enabled = enabled;
+    }
+
+    /**
+     * Called by compiled code when it cannot continue.
+     * @return an exception to be thrown by the compiled code.
+     */
+    public static RuntimeException deoptimize() {
+        return DEOPTIMIZATION;
+    }
+
+    /**
+     * Runs an LFunction call through its compiled form, compiling it first if it has become hot.
+     * Since compiled functions have no side effects, a call that deoptimizes can safely be run again by the Interpreter.
+     * @param function - The LFunction being called.
+     * @param args - The arguments passed to the function.
+     * @param context - The Context the function is called from, or null to use the function's own Context.
+     * @return an RTResult holding the function's return value, or null if the call must be interpreted.
+     */
+    public RunTimeResult execute(LFunction function, List<Value> args, Context context) {
+        Profile profile = profiles.get(function.getBodyNode());
+        if (profile == null) {
+            profile = new Profile();
+            profiles.put(function.getBodyNode(), profile);
+        }
+        if (profile.handle == null) {
+            if (profile.failed || ++profile.calls < threshold) return null;
+            compile(function, profile);
+            if (profile.handle == null) return null;
+        }
+
+        List<Tuple<String, String>> argNames = function.getArgNames();
+        if (args.size() != argNames.size()) return null;
+        for (int i = 0; i < args.size(); i++) {
+            String argType = argNames.get(i).getLeft();
+            Class<?> argClass = argType.equals("int") ? LInt.class : LFloat.class;
+            if (args.get(i).getClass() != argClass || !args.get(i).getType().equals(argType)) return null;
+        }
+        if (profile.selfCalls) {
+            // Compiled code calls itself directly, so the function's name must still refer to the same function.
+            Context scope = context == null ? function.getContext() : context;
+            if (scope == null) return null;
+            Value bound = scope.getSymbolTable().get(function.getName());
+            if (!(bound instanceof LFunction) || ((LFunction) bound).getBodyNode() != function.getBodyNode()) return null;
+        }
+
+        Value result;
+        try {
+            result = (Value) profile.handle.invokeExact(args);
+        } catch (Deoptimization | ArithmeticException | StackOverflowError e) {
+            return null;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+        return new RunTimeResult().success(result.setContext(function.getContext()).setPos(function.getPosStart(), function.getPosEnd()));
+    }
+
+    private void compile(LFunction function, Profile profile) {
+        profile.failed = true;
+        Tuple<byte[], Boolean> classFile = FunctionCompiler.compile(function);
+        if (classFile == null) return;
+        try {
+            Class<?> compiled = new FunctionLoader(BytecodeCompiler.class.getClassLoader()).define(classFile.getLeft());
+            // The compiled class is not public, and is in a package of its own loader, so its method is only reachable reflectively.
+            Method bridge = compiled.getDeclaredMethod(FunctionCompiler.BRIDGE_NAME, List.class);
+            bridge.setAccessible(true);
+            profile.handle = lookup.unreflect(bridge);
+            profile.selfCalls = classFile.getRight();
+            profile.failed = false;
+        } catch (IllegalAccessException | NoSuchMethodException | SecurityException | LinkageError ignored) {
+        }
+    }
+
+    /**
+     * Defines a single compiled function's class, which every compiled function names the same.
+     */
+    private static class FunctionLoader extends ClassLoader {
+        FunctionLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(byte[] classFile) {
+            return defineClass(null, classFile, 0, classFile.length);
+        }
+    }
+
+    /**
+     * The call count and compiled form of a function body.
+     */
+    private static class Profile {
+        int calls;
+        boolean failed;
+        boolean selfCalls;
+        MethodHandle handle;
+    }
+
+    /**
+     * Thrown by compiled code to hand a call back to the Interpreter.
+     */
+    private static class Deoptimization extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Deoptimization() {
+            super(null, null, false, false);
+        }
+    }
+}
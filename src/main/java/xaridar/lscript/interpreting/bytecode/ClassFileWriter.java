@@ -0,0 +1,211 @@
+package xaridar.lscript.interpreting.bytecode;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a minimal JVM class file, containing only a constant pool and static methods.
+ */
+public class ClassFileWriter {
+    private static final int MAJOR_VERSION = 49;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private final ByteArrayOutputStream poolBytes;
+    private final DataOutputStream pool;
+    private final Map<String, Integer> poolIndices;
+    private int poolCount;
+    private final List<byte[]> methods;
+    private final int thisClass;
+    private final int superClass;
+    private final int codeName;
+
+    /**
+     * @param className - The internal name of the class to write, such as 'xaridar/lscript/Example'.
+     */
+    public ClassFileWriter(String className) {
+        poolBytes = new ByteArrayOutputStream();
+        pool = new DataOutputStream(poolBytes);
+        poolIndices = new HashMap<>();
+        poolCount = 1;
+        methods = new ArrayList<>();
+        thisClass = classRef(className);
+        superClass = classRef("java/lang/Object");
+        codeName = utf8("Code");
+    }
+
+    /**
+     * @return The constant pool index of the class being written.
+     */
+    public int getThisClass() {
+        return thisClass;
+    }
+
+    private int constant(String key, int tag, Entry entry) {
+        Integer index = poolIndices.get(key);
+        if (index != null) return index;
+        try {
+            pool.writeByte(tag);
+            entry.write(pool);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        poolIndices.put(key, poolCount);
+        return poolCount++;
+    }
+
+    /**
+     * @param value - A String to add to the constant pool.
+     * @return The constant pool index of a Utf8 entry holding the String.
+     */
+    public int utf8(String value) {
+        return constant("U" + value, 1, out -> out.writeUTF(value));
+    }
+
+    /**
+     * @param value - An int to add to the constant pool.
+     * @return The constant pool index of an Integer entry holding the int.
+     */
+    public int intConstant(int value) {
+        return constant("I" + value, 3, out -> out.writeInt(value));
+    }
+
+    /**
+     * @param value - A float to add to the constant pool.
+     * @return The constant pool index of a Float entry holding the float.
+     */
+    public int floatConstant(float value) {
+        return constant("F" + Float.floatToRawIntBits(value), 4, out -> out.writeFloat(value));
+    }
+
+    /**
+     * @param className - The internal name of a class.
+     * @return The constant pool index of a Class entry for the class.
+     */
+    public int classRef(String className) {
+        int name = utf8(className);
+        return constant("C" + className, 7, out -> out.writeShort(name));
+    }
+
+    private int nameAndType(String name, String descriptor) {
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        return constant("N" + name + ":" + descriptor, 12, out -> {
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+        });
+    }
+
+    /**
+     * @param className - The internal name of the class declaring the method.
+     * @param name - The name of the method.
+     * @param descriptor - The method descriptor, such as '(II)I'.
+     * @return The constant pool index of a Methodref entry for the method.
+     */
+    public int methodRef(String className, String name, String descriptor) {
+        return memberRef(10, classRef(className), className, name, descriptor);
+    }
+
+    /**
+     * @param classIndex - The constant pool index of the class declaring the method.
+     * @param name - The name of the method.
+     * @param descriptor - The method descriptor, such as '(II)I'.
+     * @return The constant pool index of a Methodref entry for the method.
+     */
+    public int methodRef(int classIndex, String name, String descriptor) {
+        return memberRef(10, classIndex, "#" + classIndex, name, descriptor);
+    }
+
+    /**
+     * @param className - The internal name of the interface declaring the method.
+     * @param name - The name of the method.
+     * @param descriptor - The method descriptor, such as '(I)Ljava/lang/Object;'.
+     * @return The constant pool index of an InterfaceMethodref entry for the method.
+     */
+    public int interfaceMethodRef(String className, String name, String descriptor) {
+        return memberRef(11, classRef(className), className, name, descriptor);
+    }
+
+    private int memberRef(int tag, int classIndex, String classKey, String name, String descriptor) {
+        int nameAndType = nameAndType(name, descriptor);
+        return constant(tag + classKey + "." + name + ":" + descriptor, tag, out -> {
+            out.writeShort(classIndex);
+            out.writeShort(nameAndType);
+        });
+    }
+
+    /**
+     * Adds a public static method to the class.
+     * @param name - The name of the method.
+     * @param descriptor - The method descriptor.
+     * @param code - The CodeBuilder holding the method's bytecode.
+     */
+    public void addStaticMethod(String name, String descriptor, CodeBuilder code) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        byte[] instructions = code.toByteArray();
+        try {
+            out.writeShort(ACC_PUBLIC | ACC_STATIC);
+            out.writeShort(utf8(name));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(1);
+            out.writeShort(codeName);
+            out.writeInt(12 + instructions.length);
+            out.writeShort(code.getMaxStack());
+            out.writeShort(code.getMaxLocals());
+            out.writeInt(instructions.length);
+            out.write(instructions);
+            out.writeShort(0);
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        methods.add(bytes.toByteArray());
+    }
+
+    /**
+     * @return The finished class file.
+     */
+    public byte[] toByteArray() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(MAJOR_VERSION);
+            out.writeShort(poolCount);
+            out.write(poolBytes.toByteArray());
+            out.writeShort(ACC_FINAL | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0);
+            out.writeShort(0);
+            out.writeShort(methods.size());
+            for (byte[] method : methods) {
+                out.write(method);
+            }
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private interface Entry {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,272 @@
+package xaridar.lscript.interpreting.bytecode;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the bytecode of a single method, tracking stack depth and resolving branch Labels.
+ */
+public class CodeBuilder {
+    public static final int ICONST_0 = 0x03;
+    public static final int ICONST_1 = 0x04;
+    public static final int FCONST_0 = 0x0b;
+    public static final int BIPUSH = 0x10;
+    public static final int SIPUSH = 0x11;
+    public static final int LDC = 0x12;
+    public static final int LDC_W = 0x13;
+    public static final int ILOAD = 0x15;
+    public static final int FLOAD = 0x17;
+    public static final int ALOAD = 0x19;
+    public static final int ISTORE = 0x36;
+    public static final int FSTORE = 0x38;
+    public static final int POP = 0x57;
+    public static final int DUP = 0x59;
+    public static final int IADD = 0x60;
+    public static final int FADD = 0x62;
+    public static final int ISUB = 0x64;
+    public static final int FSUB = 0x66;
+    public static final int IMUL = 0x68;
+    public static final int FMUL = 0x6a;
+    public static final int FDIV = 0x6e;
+    public static final int IREM = 0x70;
+    public static final int FREM = 0x72;
+    public static final int INEG = 0x74;
+    public static final int FNEG = 0x76;
+    public static final int IAND = 0x7e;
+    public static final int IOR = 0x80;
+    public static final int IXOR = 0x82;
+    public static final int I2F = 0x86;
+    public static final int FCMPL = 0x95;
+    public static final int FCMPG = 0x96;
+    public static final int IFEQ = 0x99;
+    public static final int IFNE = 0x9a;
+    public static final int IFLT = 0x9b;
+    public static final int IFGE = 0x9c;
+    public static final int IFGT = 0x9d;
+    public static final int IFLE = 0x9e;
+    public static final int IF_ICMPEQ = 0x9f;
+    public static final int IF_ICMPNE = 0xa0;
+    public static final int IF_ICMPLT = 0xa1;
+    public static final int IF_ICMPGE = 0xa2;
+    public static final int IF_ICMPGT = 0xa3;
+    public static final int IF_ICMPLE = 0xa4;
+    public static final int GOTO = 0xa7;
+    public static final int IRETURN = 0xac;
+    public static final int FRETURN = 0xae;
+    public static final int ARETURN = 0xb0;
+    public static final int INVOKEVIRTUAL = 0xb6;
+    public static final int INVOKESPECIAL = 0xb7;
+    public static final int INVOKESTATIC = 0xb8;
+    public static final int INVOKEINTERFACE = 0xb9;
+    public static final int NEW = 0xbb;
+    public static final int ATHROW = 0xbf;
+    public static final int CHECKCAST = 0xc0;
+
+    private final ByteArrayOutputStream code;
+    private final List<Label> labels;
+    private int stack;
+    private int maxStack;
+    private int maxLocals;
+
+    /**
+     * @param maxLocals - The number of local variable slots initially used by the method's arguments.
+     */
+    public CodeBuilder(int maxLocals) {
+        code = new ByteArrayOutputStream();
+        labels = new ArrayList<>();
+        this.maxLocals = maxLocals;
+    }
+
+    /**
+     * Emits a single-byte instruction.
+     * @param opcode - The instruction's opcode.
+     * @param stackChange - The change in stack depth caused by the instruction.
+     */
+    public void op(int opcode, int stackChange) {
+        code.write(opcode);
+        adjustStack(stackChange);
+    }
+
+    /**
+     * Emits an instruction taking a one-byte operand.
+     * @param opcode - The instruction's opcode.
+     * @param operand - The operand.
+     * @param stackChange - The change in stack depth caused by the instruction.
+     */
+    public void opByte(int opcode, int operand, int stackChange) {
+        code.write(opcode);
+        code.write(operand);
+        adjustStack(stackChange);
+    }
+
+    /**
+     * Emits an instruction taking a two-byte operand, such as a constant pool index.
+     * @param opcode - The instruction's opcode.
+     * @param operand - The operand.
+     * @param stackChange - The change in stack depth caused by the instruction.
+     */
+    public void opShort(int opcode, int operand, int stackChange) {
+        code.write(opcode);
+        writeShort(operand);
+        adjustStack(stackChange);
+    }
+
+    /**
+     * Emits an invokeinterface instruction.
+     * @param methodIndex - The constant pool index of the InterfaceMethodref.
+     * @param argSlots - The number of argument slots taken by the method, including the receiver.
+     * @param stackChange - The change in stack depth caused by the instruction.
+     */
+    public void invokeInterface(int methodIndex, int argSlots, int stackChange) {
+        code.write(INVOKEINTERFACE);
+        writeShort(methodIndex);
+        code.write(argSlots);
+        code.write(0);
+        adjustStack(stackChange);
+    }
+
+    /**
+     * Pushes an int constant using the shortest suitable instruction.
+     * @param value - The int to push.
+     * @param writer - The ClassFileWriter owning the constant pool.
+     */
+    public void pushInt(int value, ClassFileWriter writer) {
+        if (value >= -1 && value <= 5) {
+            op(ICONST_0 + value, 1);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            opByte(BIPUSH, value & 0xff, 1);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            opShort(SIPUSH, value & 0xffff, 1);
+        } else {
+            loadConstant(writer.intConstant(value));
+        }
+    }
+
+    /**
+     * Pushes a float constant.
+     * @param value - The float to push.
+     * @param writer - The ClassFileWriter owning the constant pool.
+     */
+    public void pushFloat(float value, ClassFileWriter writer) {
+        if (Float.floatToRawIntBits(value) == 0) {
+            op(FCONST_0, 1);
+        } else {
+            loadConstant(writer.floatConstant(value));
+        }
+    }
+
+    private void loadConstant(int index) {
+        if (index <= 0xff) {
+            opByte(LDC, index, 1);
+        } else {
+            opShort(LDC_W, index, 1);
+        }
+    }
+
+    /**
+     * Emits a load or store of a local variable slot.
+     * @param opcode - ILOAD, FLOAD, ALOAD, ISTORE or FSTORE.
+     * @param slot - The local variable slot.
+     */
+    public void local(int opcode, int slot) {
+        boolean load = opcode == ILOAD || opcode == FLOAD || opcode == ALOAD;
+        opByte(opcode, slot, load ? 1 : -1);
+    }
+
+    /**
+     * Reserves a new local variable slot.
+     * @return The index of the slot.
+     */
+    public int newLocal() {
+        return maxLocals++;
+    }
+
+    /**
+     * Emits a branch instruction to a Label, which may not yet be placed.
+     * @param opcode - The branch opcode.
+     * @param label - The Label to branch to.
+     * @param stackChange - The change in stack depth caused by the instruction.
+     */
+    public void jump(int opcode, Label label, int stackChange) {
+        label.fixups.add(code.size());
+        code.write(opcode);
+        writeShort(0);
+        adjustStack(stackChange);
+    }
+
+    /**
+     * Places a Label at the current position in the code.
+     * @param label - The Label to place.
+     */
+    public void place(Label label) {
+        label.position = code.size();
+        labels.add(label);
+    }
+
+    /**
+     * @return The current stack depth.
+     */
+    public int getStack() {
+        return stack;
+    }
+
+    /**
+     * Sets the current stack depth, used where control flow merges.
+     * @param stack - The stack depth at the current position.
+     */
+    public void setStack(int stack) {
+        this.stack = stack;
+    }
+
+    private void adjustStack(int change) {
+        stack += change;
+        maxStack = Math.max(maxStack, stack);
+    }
+
+    private void writeShort(int value) {
+        code.write((value >> 8) & 0xff);
+        code.write(value & 0xff);
+    }
+
+    public int getMaxStack() {
+        return maxStack;
+    }
+
+    public int getMaxLocals() {
+        return maxLocals;
+    }
+
+    /**
+     * @return The finished bytecode, with all branch offsets resolved.
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = code.toByteArray();
+        for (Label label : labels) {
+            for (int fixup : label.fixups) {
+                int offset = label.position - fixup;
+                if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE) {
+                    throw new IllegalStateException("Branch offset out of range");
+                }
+                bytes[fixup + 1] = (byte) (offset >> 8);
+                bytes[fixup + 2] = (byte) offset;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * A position in the code that branch instructions can target.
+     */
+    public static class Label {
+        private int position = -1;
+        private final List<Integer> fixups = new ArrayList<>();
+    }
+}
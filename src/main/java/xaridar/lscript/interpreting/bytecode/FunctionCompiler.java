@@ -0,0 +1,436 @@
+package xaridar.lscript.interpreting.bytecode;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import xaridar.lscript.Tuple;
+import xaridar.lscript.interpreting.types.LFunction;
+import xaridar.lscript.TokenEnum;
+import xaridar.lscript.parsing.nodes.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static xaridar.lscript.TokenEnum.*;
+import static xaridar.lscript.interpreting.bytecode.CodeBuilder.*;
+
+/**
+ * Translates a single LFunction into a JVM class file, if its body only uses features with static int, float and bool types.
+ * Anything whose result depends on runtime values, such as 'int / int', is left to the Interpreter.
+ */
+class FunctionCompiler {
+    static final String CLASS_NAME = "xaridar/lscript/interpreting/bytecode/CompiledFunction";
+    static final String BRIDGE_NAME = "call";
+    private static final String RUN_NAME = "run";
+    private static final String INT_CLASS = "xaridar/lscript/interpreting/types/LInt";
+    private static final String FLOAT_CLASS = "xaridar/lscript/interpreting/types/LFloat";
+    private static final int SWAP = 0x5f;
+
+    private enum Type { INT, FLOAT, BOOL }
+
+    private final LFunction function;
+    private final ClassFileWriter writer;
+    private final List<Type> argTypes;
+    private final Type returnType;
+    private final String descriptor;
+    private CodeBuilder code;
+    private boolean selfCalls;
+
+    private FunctionCompiler(LFunction function, List<Type> argTypes, Type returnType) {
+        this.function = function;
+        this.argTypes = argTypes;
+        this.returnType = returnType;
+        writer = new ClassFileWriter(CLASS_NAME);
+        StringBuilder desc = new StringBuilder("(");
+        for (Type type : argTypes) {
+            desc.append(descriptorOf(type));
+        }
+        descriptor = desc.append(")").append(descriptorOf(returnType)).toString();
+    }
+
+    /**
+     * Compiles an LFunction into a class file holding a static 'call' method, which takes the function's argument List and returns its Value.
+     * @param function - The LFunction to compile.
+     * @return a Tuple holding the class file, and whether the function calls itself; or null if the function cannot be compiled.
+     */
+    static Tuple<byte[], Boolean> compile(LFunction function) {
+        if (!(function.getBodyNode() instanceof MultilineNode) || function.getRetTypes().size() != 1) return null;
+        Type returnType = typeOf(function.getRetTypes().get(0));
+        if (returnType == null) return null;
+        List<Type> argTypes = new ArrayList<>();
+        for (Tuple<String, String> arg : function.getArgNames()) {
+            Type type = typeOf(arg.getLeft());
+            if (type == null) return null;
+            argTypes.add(type);
+        }
+        FunctionCompiler compiler = new FunctionCompiler(function, argTypes, returnType);
+        try {
+            compiler.compileRun();
+            compiler.compileBridge();
+            return Tuple.of(compiler.writer.toByteArray(), compiler.selfCalls);
+        } catch (Unsupported | IllegalStateException e) {
+            return null;
+        }
+    }
+
+    private static Type typeOf(String type) {
+        switch (type) {
+            case "int":
+                return Type.INT;
+            case "float":
+                return Type.FLOAT;
+            default:
+                return null;
+        }
+    }
+
+    private static String descriptorOf(Type type) {
+        return type == Type.FLOAT ? "F" : "I";
+    }
+
+    private void compileRun() throws Unsupported {
+        code = new CodeBuilder(argTypes.size());
+        Scope scope = new Scope(null);
+        for (int i = 0; i < argTypes.size(); i++) {
+            scope.vars.put(function.getArgNames().get(i).getRight(), new Local(i, argTypes.get(i)));
+        }
+        compileBody((MultilineNode) function.getBodyNode(), scope, null, true);
+        // Falling off the end of the body returns Void, which is left to the Interpreter.
+        deoptimize();
+        if (code.getMaxLocals() > 0xff) throw new Unsupported();
+        writer.addStaticMethod(RUN_NAME, descriptor, code);
+    }
+
+    private void compileBridge() {
+        code = new CodeBuilder(1);
+        String resultClass = returnType == Type.INT ? INT_CLASS : FLOAT_CLASS;
+        if (returnType == Type.FLOAT) {
+            code.opShort(NEW, writer.classRef(resultClass), 1);
+            code.op(DUP, 1);
+        }
+        int get = writer.interfaceMethodRef("java/util/List", "get", "(I)Ljava/lang/Object;");
+        for (int i = 0; i < argTypes.size(); i++) {
+            code.local(ALOAD, 0);
+            code.pushInt(i, writer);
+            code.invokeInterface(get, 2, -1);
+            if (argTypes.get(i) == Type.INT) {
+                code.opShort(CHECKCAST, writer.classRef(INT_CLASS), 0);
+                code.opShort(INVOKEVIRTUAL, writer.methodRef(INT_CLASS, "intValue", "()I"), 0);
+            } else {
+                code.opShort(CHECKCAST, writer.classRef(FLOAT_CLASS), 0);
+                code.opShort(INVOKEVIRTUAL, writer.methodRef(FLOAT_CLASS, "floatValue", "()F"), 0);
+            }
+        }
+        code.opShort(INVOKESTATIC, writer.methodRef(writer.getThisClass(), RUN_NAME, descriptor), 1 - argTypes.size());
+        if (returnType == Type.INT)
+            code.opShort(INVOKESTATIC, writer.methodRef(resultClass, "of", "(I)L" + INT_CLASS + ";"), 0);
+        else
+            code.opShort(INVOKESPECIAL, writer.methodRef(resultClass, "<init>", "(F)V"), -2);
+        code.op(ARETURN, -1);
+        writer.addStaticMethod(BRIDGE_NAME, "(Ljava/util/List;)Lxaridar/lscript/interpreting/types/Value;", code);
+    }
+
+    private void deoptimize() {
+        code.opShort(INVOKESTATIC, writer.methodRef("xaridar/lscript/interpreting/bytecode/BytecodeCompiler", "deoptimize", "()Ljava/lang/RuntimeException;"), 1);
+        code.op(ATHROW, -1);
+    }
+
+    // statements
+
+    private void compileBody(MultilineNode body, Scope scope, Loop loop, boolean allowDeclarations) throws Unsupported {
+        for (Node node : body.getNodes()) {
+            code.setStack(0);
+            compileStatement(node, scope, loop, allowDeclarations);
+        }
+    }
+
+    private void compileStatement(Node node, Scope scope, Loop loop, boolean allowDeclarations) throws Unsupported {
+        if (node instanceof ReturnNode) {
+            List<Node> values = ((ReturnNode) node).getNodesToCall();
+            if (values.size() != 1 || compileExpression(values.get(0), scope) != returnType) throw new Unsupported();
+            code.op(returnType == Type.INT ? IRETURN : FRETURN, -1);
+        } else if (node instanceof BreakNode || node instanceof ContinueNode) {
+            if (loop == null) throw new Unsupported();
+            code.jump(GOTO, node instanceof BreakNode ? loop.end : loop.start, 0);
+        } else if (node instanceof VarAssignNode) {
+            compileVarAssign((VarAssignNode) node, scope, allowDeclarations);
+        } else if (node instanceof ConditionalNode && isStatement((ConditionalNode) node)) {
+            compileConditional((ConditionalNode) node, scope, loop);
+        } else if (node instanceof WhileNode) {
+            compileWhile((WhileNode) node, scope);
+        } else {
+            compileExpression(node, scope);
+            code.op(POP, -1);
+        }
+    }
+
+    private void compileVarAssign(VarAssignNode node, Scope scope, boolean allowDeclarations) throws Unsupported {
+        if (!node.getNestedContexts().isEmpty()) throw new Unsupported();
+        String name = (String) node.getToken().getValue();
+        Local local;
+        if (node.getType() != null) {
+            // Declarations inside conditionals only exist if their branch runs, so they are not tracked statically.
+            Type type = typeOf((String) node.getType().getValue());
+            if (!allowDeclarations || type == null || scope.vars.containsKey(name) || node.getMods().isFin() || node.getMods().isStat())
+                throw new Unsupported();
+            if (compileExpression(node.getValueNode(), scope) != type) throw new Unsupported();
+            local = new Local(code.newLocal(), type);
+            scope.vars.put(name, local);
+        } else {
+            local = scope.resolve(name);
+            if (local == null || compileExpression(node.getValueNode(), scope) != local.type) throw new Unsupported();
+        }
+        code.local(local.type == Type.FLOAT ? FSTORE : ISTORE, local.slot);
+    }
+
+    private static boolean isStatement(ConditionalNode node) {
+        for (Tuple<Tuple<Node, Node>, Boolean> aCase : node.getCases()) {
+            if (!aCase.getRight() || !(aCase.getLeft().getRight() instanceof MultilineNode)) return false;
+        }
+        return node.getElseCase() == null || (node.getElseCase().getRight() && node.getElseCase().getLeft() instanceof MultilineNode);
+    }
+
+    private void compileConditional(ConditionalNode node, Scope scope, Loop loop) throws Unsupported {
+        Label end = new Label();
+        for (Tuple<Tuple<Node, Node>, Boolean> aCase : node.getCases()) {
+            Label next = new Label();
+            if (compileExpression(aCase.getLeft().getLeft(), scope) != Type.BOOL) throw new Unsupported();
+            code.jump(IFEQ, next, -1);
+            compileBody((MultilineNode) aCase.getLeft().getRight(), new Scope(scope), loop, false);
+            code.jump(GOTO, end, 0);
+            code.place(next);
+        }
+        if (node.getElseCase() != null) {
+            compileBody((MultilineNode) node.getElseCase().getLeft(), new Scope(scope), loop, false);
+        }
+        code.place(end);
+    }
+
+    private void compileWhile(WhileNode node, Scope scope) throws Unsupported {
+        if (!(node.getBodyNode() instanceof MultilineNode)) throw new Unsupported();
+        Loop loop = new Loop();
+        code.place(loop.start);
+        code.setStack(0);
+        if (compileExpression(node.getConditionNode(), scope) != Type.BOOL) throw new Unsupported();
+        code.jump(IFEQ, loop.end, -1);
+        // The loop body gets its own Scope, which the Interpreter clears after every iteration.
+        compileBody((MultilineNode) node.getBodyNode(), new Scope(scope), loop, true);
+        code.jump(GOTO, loop.start, 0);
+        code.place(loop.end);
+    }
+
+    // expressions
+
+    private Type compileExpression(Node node, Scope scope) throws Unsupported {
+        if (node instanceof NumberNode) {
+            Object value = ((NumberNode) node).getToken().getValue();
+            if (value instanceof Integer) {
+                code.pushInt((Integer) value, writer);
+                return Type.INT;
+            } else if (value instanceof Float) {
+                code.pushFloat((Float) value, writer);
+                return Type.FLOAT;
+            }
+        } else if (node instanceof VarAccessNode) {
+            VarAccessNode access = (VarAccessNode) node;
+            Local local = access.getContext().isEmpty() ? scope.resolve((String) access.getToken().getValue()) : null;
+            if (local != null) {
+                code.local(local.type == Type.FLOAT ? FLOAD : ILOAD, local.slot);
+                return local.type;
+            }
+        } else if (node instanceof BinaryOperationNode) {
+            return compileBinaryOperation((BinaryOperationNode) node, scope);
+        } else if (node instanceof UnaryOperationNode) {
+            return compileUnaryOperation((UnaryOperationNode) node, scope);
+        } else if (node instanceof ConditionalNode && !isStatement((ConditionalNode) node)) {
+            return compileInlineConditional((ConditionalNode) node, scope);
+        } else if (node instanceof CallNode) {
+            return compileSelfCall((CallNode) node, scope);
+        }
+        throw new Unsupported();
+    }
+
+    private Type compileBinaryOperation(BinaryOperationNode node, Scope scope) throws Unsupported {
+        TokenEnum op = node.getOperationToken().getType();
+        Type left = compileExpression(node.getStartNode(), scope);
+        Type right = compileExpression(node.getEndNode(), scope);
+        switch (op) {
+            case TT_PLUS:
+            case TT_MINUS:
+            case TT_MUL:
+            case TT_DIV:
+            case TT_MOD:
+                if (left == Type.BOOL || right == Type.BOOL) break;
+                if (left == Type.INT && right == Type.INT) {
+                    // 'int / int' returns either an int or a float, depending on whether the division is exact.
+                    if (op == TT_DIV) break;
+                    code.op(op == TT_PLUS ? IADD : op == TT_MINUS ? ISUB : op == TT_MUL ? IMUL : IREM, -1);
+                    return Type.INT;
+                }
+                toFloats(left, right);
+                // The Interpreter reports dividing or taking the modulo by zero as an Error, so such a call is handed back to it rather than giving Infinity or NaN.
+                if (op == TT_DIV || op == TT_MOD) {
+                    Label nonZero = new Label();
+                    code.op(DUP, 1);
+                    code.op(FCONST_0, 1);
+                    code.op(FCMPL, -1);
+                    code.jump(IFNE, nonZero, -1);
+                    deoptimize();
+                    code.place(nonZero);
+                }
+                code.op(op == TT_PLUS ? FADD : op == TT_MINUS ? FSUB : op == TT_MUL ? FMUL : op == TT_DIV ? FDIV : FREM, -1);
+                return Type.FLOAT;
+            case TT_LT:
+            case TT_GT:
+            case TT_LEQ:
+            case TT_GEQ:
+            case TT_BOOLEQ:
+            case TT_NEQ:
+                if (left == Type.BOOL && right == Type.BOOL && (op == TT_BOOLEQ || op == TT_NEQ)) {
+                    pushBoolean(op == TT_BOOLEQ ? IF_ICMPEQ : IF_ICMPNE, -2);
+                    return Type.BOOL;
+                }
+                if (left == Type.BOOL || right == Type.BOOL) break;
+                if (left == Type.INT && right == Type.INT) {
+                    pushBoolean(op == TT_LT ? IF_ICMPLT : op == TT_GT ? IF_ICMPGT : op == TT_LEQ ? IF_ICMPLE : op == TT_GEQ ? IF_ICMPGE : op == TT_BOOLEQ ? IF_ICMPEQ : IF_ICMPNE, -2);
+                    return Type.BOOL;
+                }
+                // An int compared with a float is compared by its float value.
+                toFloats(left, right);
+                code.op(op == TT_LT || op == TT_LEQ ? FCMPG : FCMPL, -1);
+                pushBoolean(op == TT_LT ? IFLT : op == TT_GT ? IFGT : op == TT_LEQ ? IFLE : op == TT_GEQ ? IFGE : op == TT_BOOLEQ ? IFEQ : IFNE, -1);
+                return Type.BOOL;
+            case TT_AND:
+            case TT_PIPE:
+                // Both sides of a boolean operator are always evaluated.
+                if (left != Type.BOOL || right != Type.BOOL) break;
+                code.op(op == TT_AND ? IAND : IOR, -1);
+                return Type.BOOL;
+            default:
+                break;
+        }
+        throw new Unsupported();
+    }
+
+    private void toFloats(Type left, Type right) {
+        if (right == Type.INT) code.op(I2F, 0);
+        if (left == Type.INT) {
+            code.op(SWAP, 0);
+            code.op(I2F, 0);
+            code.op(SWAP, 0);
+        }
+    }
+
+    private void pushBoolean(int branch, int stackChange) {
+        Label isTrue = new Label();
+        Label end = new Label();
+        code.jump(branch, isTrue, stackChange);
+        int stack = code.getStack();
+        code.op(ICONST_0, 1);
+        code.jump(GOTO, end, 0);
+        code.place(isTrue);
+        code.setStack(stack);
+        code.op(ICONST_1, 1);
+        code.place(end);
+    }
+
+    private Type compileUnaryOperation(UnaryOperationNode node, Scope scope) throws Unsupported {
+        Type type = compileExpression(node.getNode(), scope);
+        switch (node.getOperationToken().getType()) {
+            case TT_PLUS:
+                return type;
+            case TT_MINUS:
+                if (type == Type.BOOL) break;
+                code.op(type == Type.INT ? INEG : FNEG, 0);
+                return type;
+            case TT_BANG:
+                if (type != Type.BOOL) break;
+                code.op(ICONST_1, 1);
+                code.op(IXOR, -1);
+                return type;
+            default:
+                break;
+        }
+        throw new Unsupported();
+    }
+
+    private Type compileInlineConditional(ConditionalNode node, Scope scope) throws Unsupported {
+        if (node.getCases().size() != 1 || node.getElseCase() == null || node.getElseCase().getRight())
+            throw new Unsupported();
+        Tuple<Node, Node> aCase = node.getCases().get(0).getLeft();
+        Label otherwise = new Label();
+        Label end = new Label();
+        if (compileExpression(aCase.getLeft(), scope) != Type.BOOL) throw new Unsupported();
+        code.jump(IFEQ, otherwise, -1);
+        int stack = code.getStack();
+        Type type = compileExpression(aCase.getRight(), scope);
+        code.jump(GOTO, end, 0);
+        code.place(otherwise);
+        code.setStack(stack);
+        if (compileExpression(node.getElseCase().getLeft(), scope) != type) throw new Unsupported();
+        code.place(end);
+        return type;
+    }
+
+    private Type compileSelfCall(CallNode node, Scope scope) throws Unsupported {
+        VarAccessNode callee = node.getNodeToCall();
+        String name = (String) callee.getToken().getValue();
+        if (!callee.getContext().isEmpty() || !name.equals(function.getName()) || scope.resolve(name) != null || node.getArgNodes().size() != argTypes.size())
+            throw new Unsupported();
+        for (int i = 0; i < argTypes.size(); i++) {
+            if (compileExpression(node.getArgNodes().get(i), scope) != argTypes.get(i)) throw new Unsupported();
+        }
+        code.opShort(INVOKESTATIC, writer.methodRef(writer.getThisClass(), RUN_NAME, descriptor), 1 - argTypes.size());
+        selfCalls = true;
+        return returnType;
+    }
+
+    /**
+     * Thrown when a function uses a feature that cannot be compiled.
+     */
+    private static class Unsupported extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static class Local {
+        final int slot;
+        final Type type;
+
+        Local(int slot, Type type) {
+            this.slot = slot;
+            this.type = type;
+        }
+    }
+
+    private static class Scope {
+        final Map<String, Local> vars = new HashMap<>();
+        final Scope parent;
+
+        Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        Local resolve(String name) {
+            for (Scope scope = this; scope != null; scope = scope.parent) {
+                Local local = scope.vars.get(name);
+                if (local != null) return local;
+            }
+            return null;
+        }
+    }
+
+    private static class Loop {
+        final Label start = new Label();
+        final Label end = new Label();
+    }
+}
@@ -14,6 +14,7 @@ import xaridar.lscript.interpreting.Context;
 import xaridar.lscript.interpreting.ModifierList;
 import xaridar.lscript.interpreting.RunTimeResult;
 import xaridar.lscript.interpreting.SymbolTable;
+import xaridar.lscript.lexing.Position;
 
 import java.util.List;
 
@@ -39,20 +40,44 @@ public class BaseFunction extends BasicType {
     }
 
     public RunTimeResult checkArgs(List<Tuple<String, String>> argNames, List<Value> args) {
-        RunTimeResult res = new RunTimeResult();
+        return checkArgs(argNames, args, getPosStart(), getPosEnd());
+    }
+
+    /**
+     * Checks that the right number of args are passed into the function.
+     * @param argNames - The types and names of the function's arguments.
+     * @param args - The args passed into the function.
+     * @param posStart - The start Position of the call, for errors.
+     * @param posEnd - The end Position of the call, for errors.
+     * @return An RTResult containing an Error if the wrong number of args is passed.
+     */
+    public RunTimeResult checkArgs(List<Tuple<String, String>> argNames, List<Value> args, Position posStart, Position posEnd) {
+        RunTimeResult res = RunTimeResult.shared();
 
         if (args.size() > argNames.size())
-            return res.failure(new Error.RunTimeError(getPosStart(), getPosEnd(),
+            return res.failure(new Error.RunTimeError(posStart, posEnd,
                     String.format("%d too many args are passed into %s", args.size() - argNames.size(), name), getContext()));
         if (args.size() < argNames.size())
-            return res.failure(new Error.RunTimeError(getPosStart(), getPosEnd(),
+            return res.failure(new Error.RunTimeError(posStart, posEnd,
                     String.format("%d too few args are passed into %s", argNames.size() - args.size(), name), getContext()));
 
         return res.success(null);
     }
 
     public RunTimeResult populateArgs(List<Tuple<String, String>> argNames, List<Value> args, Context execCtx) {
-        RunTimeResult res = new RunTimeResult();
+        return populateArgs(argNames, args, execCtx, getContext());
+    }
+
+    /**
+     * Sets the args of a call as variables in the Context the function is run in.
+     * @param argNames - The types and names of the function's arguments.
+     * @param args - The args passed into the function.
+     * @param execCtx - The Context the function is run in.
+     * @param errorContext - The Context an arg of the wrong type is reported in.
+     * @return An RTResult containing an Error if an arg has the wrong type.
+     */
+    public RunTimeResult populateArgs(List<Tuple<String, String>> argNames, List<Value> args, Context execCtx, Context errorContext) {
+        RunTimeResult res = RunTimeResult.shared();
 
         for (int i = 0; i < args.size(); i++) {
             String argType = argNames.get(i).getLeft();
@@ -60,17 +85,20 @@ public class BaseFunction extends BasicType {
             Value argValue = args.get(i);
             if (Constants.getInstance().TYPES.get(argType) != null && !Constants.getInstance().TYPES.get(argValue.getType()).contains(argType))
                 return res.failure(new Error.ArgumentError(argValue.getPosStart(), argValue.getPosEnd(),
-                        String.format("Wrong type passed as argument; Expected %s, got %s", argType, argValue.getType()), getContext()));
+                        String.format("Wrong type passed as argument; Expected %s, got %s", argType, argValue.getType()), errorContext));
+            if (argValue instanceof LNumber)
+                argValue = ((LNumber) argValue).widenTo(argType);
             argValue.setContext(execCtx);
             Error err = execCtx.getSymbolTable().set(argType, argName, argValue, ModifierList.getDefault());
             if (err != null)
                 return res.failure(err);
+            execCtx.getSymbolTable().setSlot(i, argName);
         }
         return res.success(null);
     }
 
     public RunTimeResult checkAndPopArgs(List<Tuple<String, String>> argNames, List<Value> args, Context execContext) {
-        RunTimeResult res = new RunTimeResult();
+        RunTimeResult res = RunTimeResult.shared();
 
         res.register(checkArgs(argNames, args));
         if (res.shouldReturn()) return res;
@@ -98,13 +126,13 @@ public class BaseFunction extends BasicType {
     @Override
     public LBoolean equalTo(Value other) {
         if (!(other instanceof LFunction)) {
-            return (LBoolean) new LBoolean(false).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+            return LBoolean.False;
         }
-        return (LBoolean) new LBoolean(name.equals(((LFunction) other).getName())).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+        return LBoolean.of(name.equals(((LFunction) other).getName()));
     }
 
     @Override
     public LBoolean notEqualTo(Value other) {
-        return (LBoolean) new LBoolean(!equalTo(other).getValue()).setPos(getPosStart(), getPosEnd()).setContext(getContext());
+        return LBoolean.of(!equalTo(other).getValue());
     }
 }
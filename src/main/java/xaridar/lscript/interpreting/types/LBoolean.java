@@ -9,24 +9,49 @@ package xaridar.lscript.interpreting.types;
 
 import xaridar.lscript.Tuple;
 import xaridar.lscript.errors.Error;
+import xaridar.lscript.interpreting.Context;
+import xaridar.lscript.lexing.Position;
 
+/**
+ * An immutable boolean Value. Only the two shared instances, True and False, exist.
+ * Like numbers, booleans carry no Position or Context; Errors about them are located by the Node that produced them.
+ */
 public class LBoolean extends BasicType {
 
-    public static LBoolean True = new LBoolean(true);
-    public static LBoolean False = new LBoolean(false);
+    public static final LBoolean True = new LBoolean(true);
+    public static final LBoolean False = new LBoolean(false);
     private final boolean value;
 
-    public LBoolean(boolean value) {
+    private LBoolean(boolean value) {
         super("bool");
         this.value = value;
     }
 
+    /**
+     * @param value - A Java boolean.
+     * @return the shared LBoolean for the given boolean.
+     */
+    public static LBoolean of(boolean value) {
+        return value ? True : False;
+    }
+
     @Override
     public LBoolean copy() {
-        LBoolean b = new LBoolean(value);
-        b.setContext(getContext());
-        b.setPos(getPosStart(), getPosEnd());
-        return b;
+        return this;
+    }
+
+    @Override
+    public BasicType setContext(Context context) {
+        return this;
+    }
+
+    @Override
+    public BasicType setPos(Position posStart, Position posEnd) {
+        return this;
+    }
+
+    @Override
+    public void setType(String expectedType) {
     }
 
     @Override
@@ -45,17 +70,17 @@ public class LBoolean extends BasicType {
     @Override
     public LBoolean equalTo(Value other) {
         if (!(other instanceof LBoolean)) {
-            return (LBoolean) new LBoolean(false).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+            return LBoolean.False;
         }
-        return (LBoolean) new LBoolean(value == ((LBoolean) other).getValue()).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+        return LBoolean.of(value == ((LBoolean) other).getValue());
     }
 
     @Override
     public LBoolean notEqualTo(Value other) {
         if (!(other instanceof LBoolean)) {
-            return (LBoolean) new LBoolean(true).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+            return LBoolean.True;
         }
-        return (LBoolean) new LBoolean(value != ((LBoolean) other).getValue()).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+        return LBoolean.of(value != ((LBoolean) other).getValue());
     }
 
     @Override
@@ -63,7 +88,7 @@ public class LBoolean extends BasicType {
         if (!(other instanceof LBoolean)) {
             return null;
         }
-        return Tuple.of(new LBoolean(value && ((LBoolean) other).getValue()).setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
+        return Tuple.of(LBoolean.of(value && ((LBoolean) other).getValue()), null);
     }
 
     @Override
@@ -71,16 +96,29 @@ public class LBoolean extends BasicType {
         if (!(other instanceof LBoolean)) {
             return null;
         }
-        return Tuple.of(new LBoolean(value || ((LBoolean) other).getValue()).setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
+        return Tuple.of(LBoolean.of(value || ((LBoolean) other).getValue()), null);
     }
 
     @Override
     public Tuple<BasicType, Error> reversed() {
-        return Tuple.of(new LBoolean(!value).setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
+        return Tuple.of(LBoolean.of(!value), null);
     }
 
     @Override
     public boolean isTrue() {
         return value;
     }
+
+    /**
+     * An LBoolean is equal to another LBoolean with the same value.
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof LBoolean && ((LBoolean) other).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Boolean.hashCode(value);
+    }
 }
@@ -49,14 +49,14 @@ public class LByte extends BasicType {
 
     @Override
     public LBoolean equalTo(Value other) {
-        if (!(other instanceof LByte)) return (LBoolean) new LBoolean(false).setContext(getContext()).setPos(getPosStart(), other.getPosEnd());
-        return (LBoolean) new LBoolean(val == ((LByte) other).getValue()).setContext(getContext()).setPos(getPosStart(), other.getPosEnd());
+        if (!(other instanceof LByte)) return LBoolean.False;
+        return LBoolean.of(val == ((LByte) other).getValue());
     }
 
     @Override
     public LBoolean notEqualTo(Value other) {
-        if (!(other instanceof LByte)) return (LBoolean) new LBoolean(true).setContext(getContext()).setPos(getPosStart(), other.getPosEnd());
-        return (LBoolean) new LBoolean(val != ((LByte) other).getValue()).setContext(getContext()).setPos(getPosStart(), other.getPosEnd());
+        if (!(other instanceof LByte)) return LBoolean.True;
+        return LBoolean.of(val != ((LByte) other).getValue());
     }
 
     @Override
@@ -71,4 +71,17 @@ public class LByte extends BasicType {
         }
         return null;
     }
+
+    /**
+     * An LByte is equal to another LByte with the same value, so bytes can be used as keys.
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof LByte && ((LByte) other).val == val;
+    }
+
+    @Override
+    public int hashCode() {
+        return Byte.hashCode(val);
+    }
 }
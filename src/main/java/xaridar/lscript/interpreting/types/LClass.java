@@ -7,22 +7,40 @@ package xaridar.lscript.interpreting.types;
  * @author Xaridar
  */
 
-import xaridar.lscript.parsing.nodes.FuncDefNode;
+import xaridar.lscript.Tuple;
+import xaridar.lscript.interpreting.ModifierList;
+import xaridar.lscript.interpreting.SymbolTable;
 import xaridar.lscript.parsing.nodes.VarNode;
 
 import java.util.List;
 
+/**
+ * A class, holding the layout shared by all of its instances.
+ * Methods are defined once, when the class is, in a method table shared by every instance; only the fields are evaluated again for every instance.
+ * A method is bound to the instance it is accessed through, which it runs below so that it can read the instance's fields.
+ */
 public class LClass extends BasicType {
 
     private final String name;
     private final List<LFunction> statMethods;
-    private final List<FuncDefNode> methods;
+    private final List<Tuple<LFunction, ModifierList>> methods;
     private final List<Value> staticVars;
     private final List<VarNode> fields;
     private final LFunction constructor;
     private final LClass thisExtends;
-
-    public LClass(String name, LFunction constructor, List<LFunction> statMethods, List<FuncDefNode> methods, List<Value> staticVars, List<VarNode> fields, LClass thisExtends) {
+    private final SymbolTable methodTable;
+    private int instanceCount;
+
+    /**
+     * @param name - The name of the class.
+     * @param constructor - The constructor of the class.
+     * @param statMethods - The static methods of the class.
+     * @param methods - The methods of each instance, including inherited methods which are not overridden, with their modifiers.
+     * @param staticVars - The static variables of the class.
+     * @param fields - The fields of each instance, including inherited fields which are not redefined.
+     * @param thisExtends - The class this class extends, or null.
+     */
+    public LClass(String name, LFunction constructor, List<LFunction> statMethods, List<Tuple<LFunction, ModifierList>> methods, List<Value> staticVars, List<VarNode> fields, LClass thisExtends) {
         super("class");
         this.name = name;
         this.statMethods = statMethods;
@@ -31,6 +49,26 @@ public class LClass extends BasicType {
         this.fields = fields;
         this.constructor = constructor;
         this.thisExtends = thisExtends;
+        // Each method is stored in the slot of its position in the class layout, after the fields, so member accesses can cache the slot for all instances.
+        methodTable = new SymbolTable();
+        int slot = fields.size();
+        for (Tuple<LFunction, ModifierList> method : methods) {
+            methodTable.set("function", method.getLeft().getName(), method.getLeft(), method.getRight());
+            methodTable.setSlot(slot++, method.getLeft().getName());
+        }
+    }
+
+    private LClass(LClass cls) {
+        super("class");
+        name = cls.name;
+        statMethods = cls.statMethods;
+        methods = cls.methods;
+        staticVars = cls.staticVars;
+        fields = cls.fields;
+        constructor = cls.constructor;
+        thisExtends = cls.thisExtends;
+        methodTable = cls.methodTable;
+        instanceCount = cls.instanceCount;
     }
 
     @Override
@@ -42,7 +80,7 @@ public class LClass extends BasicType {
 
     @Override
     public Value copy() {
-        LClass cls = new LClass(name, constructor, statMethods, methods, staticVars, fields, thisExtends);
+        LClass cls = new LClass(this);
         cls.setContext(context);
         cls.setPos(posStart, posEnd);
         return cls;
@@ -56,13 +94,13 @@ public class LClass extends BasicType {
     @Override
     public LBoolean equalTo(Value other) {
         if (!(other instanceof LClass))
-            return (LBoolean) new LBoolean(false).setContext(context).setPos(posStart, posEnd);
-        return (LBoolean) new LBoolean(name.equals(((LClass) other).getName())).setContext(context).setPos(posStart, posEnd);
+            return LBoolean.False;
+        return LBoolean.of(name.equals(((LClass) other).getName()));
     }
 
     @Override
     public LBoolean notEqualTo(Value other) {
-        return (LBoolean) new LBoolean(!equalTo(other).isTrue()).setContext(context).setPos(posStart, posEnd);
+        return LBoolean.of(!equalTo(other).isTrue());
     }
 
     public String getName() {
@@ -73,7 +111,7 @@ public class LClass extends BasicType {
         return staticVars;
     }
 
-    public List<FuncDefNode> getMethods() {
+    public List<Tuple<LFunction, ModifierList>> getMethods() {
         return methods;
     }
 
@@ -92,4 +130,19 @@ public class LClass extends BasicType {
     public LClass getThisExtends() {
         return thisExtends;
     }
+
+    /**
+     * @return the SymbolTable holding the methods of every instance of this class, which is shared by their own SymbolTables.
+     */
+    public SymbolTable getMethodTable() {
+        return methodTable;
+    }
+
+    /**
+     * @return the display name for a new instance of this class, numbered in the order instances are created.
+     */
+    public String nextInstanceName() {
+        String id = Integer.toHexString(++instanceCount);
+        return name + "@" + "00000000".substring(Math.min(id.length(), 8)) + id;
+    }
 }
@@ -0,0 +1,68 @@
+package xaridar.lscript.interpreting.types;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import xaridar.lscript.errors.Error;
+import xaridar.lscript.interpreting.RunTimeResult;
+
+/**
+ * A 64-bit floating point Value, written as a number literal ending in 'd'.
+ */
+public class LDouble extends LNumber {
+
+    private final double value;
+
+    public LDouble(double value) {
+        super("double");
+        this.value = value;
+    }
+
+    @SuppressWarnings("unused")
+    public static RunTimeResult from(Value val) {
+        RunTimeResult res = new RunTimeResult();
+        if (val instanceof LNumber) {
+            return res.success(((LNumber) val).widenTo("double"));
+        }
+        return res.failure(new Error.RunTimeError(val.getPosStart(), val.getPosEnd(), "Cannot convert '" + val.getType() + "' to double.", val.getContext()));
+    }
+
+    @Override
+    public LDouble copy() {
+        return this;
+    }
+
+    @Override
+    public Double getValue() {
+        return Double.valueOf(value);
+    }
+
+    @Override
+    public int intValue() {
+        return (int) value;
+    }
+
+    @Override
+    public long longValue() {
+        return (long) value;
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) value;
+    }
+
+    @Override
+    public double doubleValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(value);
+    }
+}
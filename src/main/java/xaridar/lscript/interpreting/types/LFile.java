@@ -61,13 +61,13 @@ public class LFile extends Value {
     @Override
     public LBoolean equalTo(Value other) {
         if (!(other instanceof LFile)) {
-            return (LBoolean) new LBoolean(false).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+            return LBoolean.False;
         }
-        return (LBoolean) new LBoolean(path.equals(((LFile) other).getPath())).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+        return LBoolean.of(path.equals(((LFile) other).getPath()));
     }
 
     @Override
     public LBoolean notEqualTo(Value other) {
-        return (LBoolean) new LBoolean(!equalTo(other).getValue()).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+        return LBoolean.of(!equalTo(other).getValue());
     }
 }
@@ -13,21 +13,18 @@ public class LFloat extends LNumber {
     private final float value;
 
     public LFloat(float value) {
-        super("float", value);
+        super("float");
         this.value = value;
     }
 
     public LFloat(int value) {
-        super("float", (float) value);
+        super("float");
         this.value = value;
     }
 
     @Override
     public LFloat copy() {
-        LFloat b = new LFloat(value);
-        b.setContext(getContext());
-        b.setPos(getPosStart(), getPosEnd());
-        return b;
+        return this;
     }
 
     @Override
@@ -35,6 +32,26 @@ public class LFloat extends LNumber {
         return Float.valueOf(value);
     }
 
+    @Override
+    public int intValue() {
+        return (int) value;
+    }
+
+    @Override
+    public long longValue() {
+        return (long) value;
+    }
+
+    @Override
+    public float floatValue() {
+        return value;
+    }
+
+    @Override
+    public double doubleValue() {
+        return value;
+    }
+
     @Override
     public String toString() {
         return String.valueOf(value);
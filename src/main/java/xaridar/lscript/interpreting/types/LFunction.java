@@ -11,16 +11,23 @@ import xaridar.lscript.interpreting.Context;
 import xaridar.lscript.interpreting.Interpreter;
 import xaridar.lscript.parsing.nodes.Node;
 import xaridar.lscript.interpreting.RunTimeResult;
+import xaridar.lscript.interpreting.Symbol;
+import xaridar.lscript.interpreting.SymbolTable;
+import xaridar.lscript.interpreting.bytecode.BytecodeCompiler;
+import xaridar.lscript.lexing.Position;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import xaridar.lscript.Tuple;
+import xaridar.lscript.errors.Error;
 
 public class LFunction extends BaseFunction {
 
     private Node bodyNode;
     private final List<Tuple<String, String>> argNames;
     private List<String> retTypes;
+    private MemoCache memo;
 
     public LFunction(String name, Node bodyNode, List<Tuple<String, String>> argNames, List<String> retTypes) {
         super(name == null ? "<anonymous>" : name);
@@ -34,46 +41,125 @@ public class LFunction extends BaseFunction {
 
     @Override
     public RunTimeResult execute(List<Value> args, Context context) {
-        RunTimeResult res = new RunTimeResult();
-        Interpreter interpreter = Interpreter.getInstance();
-        Context newContext = generateExecContext(context);
-
-        res.register(checkAndPopArgs(argNames, args, newContext));
-        if (res.shouldReturn()) return res;
-
-        res.register(interpreter.visit(bodyNode, newContext));
-        if (res.getFuncRetVal() == null && res.shouldReturn()) return res;
-        Value retVal = res.getFuncRetVal();
-        if (retVal == null)
-            retVal = NullType.Void;
-        return res.success(retVal);
+        return call(args, context, context, getPosStart(), getPosEnd());
     }
 
     @Override
     public RunTimeResult execute(List<Value> args) {
-        RunTimeResult res = new RunTimeResult();
-        Interpreter interpreter = Interpreter.getInstance();
-        Context newContext = generateExecContext();
+        return call(args, getContext(), null, getPosStart(), getPosEnd());
+    }
+
+    /**
+     * Calls this function from a CallNode. The Positions of the call are passed in, so the function does not need to be copied to hold them.
+     * @param args - A list of args for execution of the function.
+     * @param posStart - The start Position of the call.
+     * @param posEnd - The end Position of the call.
+     * @return An RTResult containing either the returned Value or an Error.
+     */
+    public RunTimeResult call(List<Value> args, Position posStart, Position posEnd) {
+        return call(args, getContext(), null, posStart, posEnd);
+    }
+
+    /**
+     * Calls this function, first looking for its result in the function's cache if it is memoized.
+     */
+    private RunTimeResult call(List<Value> args, Context parent, Context callerContext, Position posStart, Position posEnd) {
+        if (memo == null) return invoke(args, parent, callerContext, posStart, posEnd);
+        List<Object> key = memo.keyOf(args);
+        if (key == null) return invoke(args, parent, callerContext, posStart, posEnd);
+        Value cached = memo.get(key);
+        if (cached != null) return RunTimeResult.shared().success(cached);
+        RunTimeResult res = invoke(args, parent, callerContext, posStart, posEnd);
+        if (!res.shouldReturn()) memo.put(key, res.getValue());
+        return res;
+    }
 
-        res.register(checkAndPopArgs(argNames, args, newContext));
+    /**
+     * Runs the function body in a new frame, made of a Context and SymbolTable below the given parent Context.
+     * @param parent - The Context the frame is created in.
+     * @param callerContext - The Context passed to execute(), if there is one, which the compiled function checks its own name in.
+     */
+    private RunTimeResult invoke(List<Value> args, Context parent, Context callerContext, Position posStart, Position posEnd) {
+        // Compiled functions call themselves directly, so a memoized function is always interpreted to use its cache.
+        if (BytecodeCompiler.enabled && memo == null) {
+            RunTimeResult compiled = BytecodeCompiler.getInstance().execute(this, args, callerContext);
+            if (compiled != null) return compiled;
+        }
+        RunTimeResult res = RunTimeResult.shared();
+        Context frame = new Context(name, parent, posStart, false);
+        frame.setSymbolTable(new SymbolTable(parent.getSymbolTable(), frame));
+
+        res.register(checkArgs(argNames, args, posStart, posEnd));
+        if (res.shouldReturn()) return res;
+        res.register(populateArgs(argNames, args, frame));
         if (res.shouldReturn()) return res;
 
-        res.register(interpreter.visit(bodyNode, newContext));
+        while (true) {
+            res.register(Interpreter.getInstance().visit(bodyNode, frame));
+            List<Value> tailCallArgs = res.getTailCallArgs();
+            if (tailCallArgs == null) break;
+            // A tail call to this function runs its body again in the same frame, instead of nesting a new call.
+            // Args of the wrong type are reported in the frame, as they would be by the call this replaces.
+            frame.getSymbolTable().removeAll();
+            res.register(populateArgs(argNames, tailCallArgs, frame, frame));
+            if (res.shouldReturn()) return res;
+        }
         if (res.getFuncRetVal() == null && res.shouldReturn()) return res;
         Value retVal = res.getFuncRetVal();
         if (retVal == null)
             retVal = NullType.Void;
+        else {
+            Error error = checkReturnTypes(retVal, frame, posStart, posEnd);
+            if (error != null) return res.failure(error);
+        }
         return res.success(retVal);
     }
 
+    /**
+     * Checks a returned Value against the declared return types.
+     * The ReturnTypeChecker checks what it can when the function is defined, but returned expressions whose types cannot be inferred, such as calls, are only checked here.
+     * @param retVal - The returned Value, or a list of the returned Values if the function has more than one return type.
+     * @param frame - The Context the function was run in.
+     * @param posStart - The start Position of the call, for errors.
+     * @param posEnd - The end Position of the call, for errors.
+     * @return an Error if a returned Value has the wrong type, or null if none do.
+     */
+    private Error checkReturnTypes(Value retVal, Context frame, Position posStart, Position posEnd) {
+        if (retTypes.isEmpty()) return null;
+        List<Value> values = retTypes.size() == 1 ? Collections.singletonList(retVal) : ((LList) retVal).getElements();
+        for (int i = 0; i < values.size(); i++) {
+            String type = values.get(i).getType();
+            if (!Symbol.typeEquals(retTypes.get(i), type, frame))
+                return new Error.RunTimeError(posStart, posEnd, "Wrong type returned from " + name + "; Expected '" + retTypes.get(i) + "', got '" + type + "'", getContext());
+        }
+        return null;
+    }
+
     @Override
     public LFunction copy() {
         LFunction f = new LFunction(name, bodyNode, argNames, retTypes);
         f.setContext(getContext());
         f.setPos(getPosStart(), getPosEnd());
+        f.memo = memo;
         return f;
     }
 
+    /**
+     * Makes this function cache its results by its args, as declared by the 'memo' modifier.
+     * @return this function.
+     */
+    public LFunction memoize() {
+        memo = new MemoCache();
+        return this;
+    }
+
+    /**
+     * @return The cache of this function's results, or null if it is not memoized.
+     */
+    public MemoCache getMemo() {
+        return memo;
+    }
+
     public List<Tuple<String, String>> getArgNames() {
         return argNames;
     }
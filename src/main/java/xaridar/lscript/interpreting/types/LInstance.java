@@ -0,0 +1,55 @@
+package xaridar.lscript.interpreting.types;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import xaridar.lscript.interpreting.Context;
+import xaridar.lscript.interpreting.RunTimeResult;
+import xaridar.lscript.interpreting.Symbol;
+
+import java.util.Collections;
+
+/**
+ * An instance of a user-defined class, whose fields are stored in its own Context, and whose methods are found through its class.
+ */
+public class LInstance extends Value {
+
+    /**
+     * @param type - The name of the instance's class.
+     * @param contained - The Context holding the instance's fields and methods.
+     */
+    public LInstance(String type, Context contained) {
+        super(type, contained);
+    }
+
+    @Override
+    public LBoolean equalTo(Value other) {
+        return LBoolean.False;
+    }
+
+    @Override
+    public LBoolean notEqualTo(Value other) {
+        return LBoolean.True;
+    }
+
+    /**
+     * @return the result of the instance's toString method, if it has a public one taking no args and returning a str; or the display name of its Context.
+     */
+    @Override
+    public String toString() {
+        Value val = ownContext.getSymbolTable().get("toString");
+        Symbol symbol = ownContext.getSymbolTable().getSymbolByName("toString");
+        if (val instanceof LFunction && ((LFunction) val).getArgNames().size() == 0 && symbol != null && symbol.isAccessible() && ((LFunction) val).getRetTypes().size() == 1 && ((LFunction) val).getRetTypes().get(0).equals("str")) {
+            RunTimeResult res = new RunTimeResult();
+            // Methods are shared by every instance of a class, so the method is run below this instance's Context.
+            Value str = res.register(((LFunction) val).execute(Collections.emptyList(), ownContext));
+            if (res.shouldReturn()) return ownContext.getDisplayName();
+            return str.toString();
+        }
+        return ownContext.getDisplayName();
+    }
+}
@@ -10,19 +10,38 @@ package xaridar.lscript.interpreting.types;
 /**/
 public class LInt extends LNumber {
 
+    private static final int CACHE_LOW = -128;
+    private static final LInt[] CACHE;
+
+    static {
+        int high = Math.max(Integer.getInteger("lscript.intcache.high", 1023), 127);
+        CACHE = new LInt[high - CACHE_LOW + 1];
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new LInt(i + CACHE_LOW);
+        }
+    }
+
     private final int value;
 
     public LInt(int value) {
-        super("int", Integer.valueOf(value));
+        super("int");
         this.value = value;
     }
 
+    /**
+     * Returns an LInt for an int, shared with all other LInts of the same value if it is within the cached range.
+     * The cache covers -128 to 1023 by default; its upper bound can be changed with the 'lscript.intcache.high' property.
+     * @param value - A Java int.
+     * @return an LInt holding the int.
+     */
+    public static LInt of(int value) {
+        if (value >= CACHE_LOW && value < CACHE_LOW + CACHE.length) return CACHE[value - CACHE_LOW];
+        return new LInt(value);
+    }
+
     @Override
     public LInt copy() {
-        LInt b = new LInt(value);
-        b.setContext(getContext());
-        b.setPos(getPosStart(), getPosEnd());
-        return b;
+        return this;
     }
 
     @Override
@@ -30,6 +49,26 @@ public class LInt extends LNumber {
         return Integer.valueOf(value);
     }
 
+    @Override
+    public int intValue() {
+        return value;
+    }
+
+    @Override
+    public long longValue() {
+        return value;
+    }
+
+    @Override
+    public float floatValue() {
+        return value;
+    }
+
+    @Override
+    public double doubleValue() {
+        return value;
+    }
+
     @Override
     public String toString() {
         return String.valueOf(value);
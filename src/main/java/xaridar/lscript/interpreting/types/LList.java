@@ -14,13 +14,20 @@ import xaridar.lscript.interpreting.RunTimeResult;
 import java.util.Collections;
 import java.util.stream.Collectors;
 
+/**
+ * A list. Copies of a list, such as those made when a variable holding it is read, are the same list, so that changing the list through any of them changes it for all of them.
+ * Lists built from a list, by '+' or slicing, are new lists which share its elements until either of them is changed, so building them does not copy the elements.
+ */
 public class LList extends BasicType {
 
-    private final java.util.List<Value> elements;
+    private final PackedList elements;
 
+    /**
+     * @param elements - The elements of the list, which are copied unless they are already a PackedList.
+     */
     public LList(java.util.List<Value> elements) {
         super("list");
-        this.elements = elements;
+        this.elements = elements instanceof PackedList ? (PackedList) elements : PackedList.copyOf(elements);
     }
 
     @Override
@@ -42,12 +49,12 @@ public class LList extends BasicType {
 
     @Override
     public Tuple<BasicType, Error> addedTo(BasicType other) {
-        LList newList = copy();
+        PackedList newElements = elements.slice(0, elements.size());
         if (other instanceof LList)
-            newList.getElements().addAll(((LList) other).elements);
+            newElements.addAll(((LList) other).elements);
         else
-            newList.getElements().add(other);
-        return Tuple.of(newList, null);
+            newElements.add(other);
+        return Tuple.of(new LList(newElements).setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
     }
 
     public java.util.List<Value> getElements() {
@@ -63,19 +70,19 @@ public class LList extends BasicType {
     public Tuple<Value, Error> elementAt(Value startIndex, Value endIndex) {
         if (!(startIndex instanceof LInt) || !(endIndex instanceof LInt))
             return Tuple.of(null, new Error.RunTimeError(startIndex.getPosStart(), endIndex.getPosEnd(), "lists can only be indexed or sliced by integer values.", context));
-        int startNum = ((LInt) startIndex).getValue();
-        int endNum = ((LInt) endIndex).getValue();
+        int startNum = ((LInt) startIndex).intValue();
+        int endNum = ((LInt) endIndex).intValue();
         if (startNum < 0)
             startNum = startNum + elements.size();
-        if (startNum > elements.size()) return Tuple.of(null, new Error.IndexOutOfBoundsError(startIndex.getPosStart(), startIndex.getPosEnd(), "Index " + startIndex.getValue() + " out of range for length " + elements.size(), context));
+        if (startNum < 0 || startNum > elements.size()) return Tuple.of(null, new Error.IndexOutOfBoundsError(startIndex.getPosStart(), startIndex.getPosEnd(), "Index " + startIndex.getValue() + " out of range for length " + elements.size(), context));
         if (endNum < 0)
             endNum = endNum + elements.size();
-        if (endNum > elements.size()) return Tuple.of(null, new Error.IndexOutOfBoundsError(endIndex.getPosStart(), endIndex.getPosEnd(), "Index " + endIndex.getValue() + " out of range for length " + elements.size(), context));
+        if (endNum < 0 || endNum > elements.size()) return Tuple.of(null, new Error.IndexOutOfBoundsError(endIndex.getPosStart(), endIndex.getPosEnd(), "Index " + endIndex.getValue() + " out of range for length " + elements.size(), context));
         if (startNum > endNum) return Tuple.of(null, new Error.RunTimeError(startIndex.getPosStart(), endIndex.getPosEnd(), "Start index cannot be greater than end index", context));
         if (startNum == endNum) {
             return Tuple.of(elements.get(startNum), null);
         } else {
-            return Tuple.of(new LList(elements.subList(startNum, endNum)), null);
+            return Tuple.of(new LList(elements.slice(startNum, endNum)), null);
         }
     }
 
@@ -83,7 +90,7 @@ public class LList extends BasicType {
     public Tuple<Value, Error> setElementAt(Value index, Value val) {
         if (!(index instanceof LInt))
             return Tuple.of(null, new Error.RunTimeError(index.getPosStart(), index.getPosEnd(), "lists can only be indexed by integer values.", context));
-        int num = ((LInt) index).getValue();
+        int num = ((LInt) index).intValue();
         if (0 <= num && num <= elements.size() - 1)
             return Tuple.of(elements.set(num, val), null);
         if (num < 0 && -1*num <= elements.size())
@@ -94,37 +101,25 @@ public class LList extends BasicType {
 
     @Override
     public LBoolean equalTo(Value other) {
-        if (!(other instanceof LList))
-            return (LBoolean) new LBoolean(false).setContext(getContext()).setPos(getPosStart(), getPosEnd());
-        boolean res = true;
-        for (int i = 0, elementsSize = elements.size(); i < elementsSize; i++) {
-            Value val = elements.get(i);
-            Tuple<Value, Error> otherElement = other.elementAt(new LInt(i), new LInt(i));
-            if (otherElement.getRight() != null)
-                return (LBoolean) new LBoolean(false).setContext(getContext()).setPos(getPosStart(), getPosEnd());
-            LBoolean equal = val.equalTo(otherElement.getLeft());
-            if (!equal.isTrue()) {
-                res = false;
-            }
-        }
-        return (LBoolean) new LBoolean(res).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+        return LBoolean.of(equals(other));
     }
 
     @Override
     public LBoolean notEqualTo(Value other) {
-        if (!(other instanceof LList))
-            return (LBoolean) new LBoolean(false).setContext(getContext()).setPos(getPosStart(), getPosEnd());
-        boolean res = true;
-        for (int i = 0, elementsSize = elements.size(); i < elementsSize; i++) {
-            Value val = elements.get(i);
-            Tuple<Value, Error> otherElement = other.elementAt(new LInt(i), new LInt(i));
-            if (otherElement.getRight() != null)
-                return (LBoolean) new LBoolean(false).setContext(getContext()).setPos(getPosStart(), getPosEnd());
-            LBoolean equal = val.equalTo(otherElement.getLeft());
-            if (equal.isTrue()) {
-                res = false;
-            }
-        }
-        return (LBoolean) new LBoolean(res).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+        return LBoolean.of(!equals(other));
+    }
+
+    /**
+     * An LList is equal to another LList with equal elements in the same order.
+     * As with any mutable key, a list must not be changed while it is used as one.
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof LList && ((LList) other).elements.equals(elements);
+    }
+
+    @Override
+    public int hashCode() {
+        return elements.hashCode();
     }
 }
@@ -0,0 +1,86 @@
+package xaridar.lscript.interpreting.types;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import xaridar.lscript.errors.Error;
+import xaridar.lscript.interpreting.RunTimeResult;
+
+/**
+ * A 64-bit integer Value, written as an integer literal ending in 'L' or one too large for an int.
+ */
+public class LLong extends LNumber {
+
+    private static final LLong[] CACHE = new LLong[256];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            CACHE[i] = new LLong(i - 128);
+        }
+    }
+
+    private final long value;
+
+    public LLong(long value) {
+        super("long");
+        this.value = value;
+    }
+
+    /**
+     * Returns an LLong for a long, shared with all other LLongs of the same value if it is between -128 and 127.
+     * @param value - A Java long.
+     * @return an LLong holding the long.
+     */
+    public static LLong of(long value) {
+        if (value >= -128 && value < 128) return CACHE[(int) value + 128];
+        return new LLong(value);
+    }
+
+    @SuppressWarnings("unused")
+    public static RunTimeResult from(Value val) {
+        RunTimeResult res = new RunTimeResult();
+        if (val instanceof LInt || val instanceof LLong) {
+            return res.success(of(((LNumber) val).longValue()));
+        }
+        return res.failure(new Error.RunTimeError(val.getPosStart(), val.getPosEnd(), "Cannot convert '" + val.getType() + "' to long.", val.getContext()));
+    }
+
+    @Override
+    public LLong copy() {
+        return this;
+    }
+
+    @Override
+    public Long getValue() {
+        return Long.valueOf(value);
+    }
+
+    @Override
+    public int intValue() {
+        return (int) value;
+    }
+
+    @Override
+    public long longValue() {
+        return value;
+    }
+
+    @Override
+    public float floatValue() {
+        return value;
+    }
+
+    @Override
+    public double doubleValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(value);
+    }
+}
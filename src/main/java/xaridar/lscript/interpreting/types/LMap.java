@@ -12,6 +12,10 @@ import xaridar.lscript.errors.Error;
 
 import java.util.HashMap;
 
+/**
+ * A map. Copies of a map, such as those made when a variable holding it is read, are the same map, so that changing the map through any of them changes it for all of them.
+ * Unlike the sum of two lists, the sum of two maps does not share either map's entries: it is a new map holding a copy of them, since adding the right map's entries would copy a shared table anyway.
+ */
 public class LMap extends BasicType {
     private final java.util.HashMap<Value, Value> map;
 
@@ -44,10 +48,11 @@ public class LMap extends BasicType {
 
     @Override
     public Tuple<BasicType, Error> addedTo(BasicType other) {
-        LMap newMap = copy();
         if (other instanceof LMap) {
+            // The sum is a new map, so neither operand is changed.
+            LMap newMap = new LMap(new HashMap<>(map));
             newMap.getMap().putAll(((LMap) other).getMap());
-            return Tuple.of(newMap, null);
+            return Tuple.of(newMap.setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
         }
         return null;
     }
@@ -55,16 +60,7 @@ public class LMap extends BasicType {
     @Override
     public Tuple<Value, Error> elementAt(Value startIndex, Value endIndex) {
         if (startIndex.notEqualTo(endIndex).isTrue()) return Tuple.of(null, new Error.UnsupportedOperationError(startIndex.getPosStart(), endIndex.getPosEnd(), "Cannot slice map", getContext()));
-        Value element = null;
-        for (java.util.Map.Entry<Value, Value> entry : map.entrySet()) {
-            Value key = entry.getKey();
-            Value value = entry.getValue();
-            LBoolean equal = key.equalTo(startIndex);
-            if (equal.isTrue()) {
-                element = value;
-                break;
-            }
-        }
+        Value element = isHashedByValue(startIndex) ? map.get(startIndex) : map.get(findKey(startIndex));
         if (element == null) {
             return Tuple.of(null, new Error.RunTimeError(startIndex.getPosStart(), startIndex.getPosEnd(), "No value found for key " + startIndex, context));
         }
@@ -73,54 +69,62 @@ public class LMap extends BasicType {
 
     @Override
     public Tuple<Value, Error> setElementAt(Value startIndex, Value value) {
-        Value lastVal = NullType.Null;
-        for (java.util.Map.Entry<Value, Value> entry : map.entrySet()) {
-            Value key = entry.getKey();
-            LBoolean equal = key.equalTo(startIndex);
-            if (equal.isTrue()) {
-                lastVal = map.remove(key);
-                break;
-            }
-        }
+        // The key is replaced along with the value, as the new key may be a different type of number.
+        Value lastVal = map.remove(isHashedByValue(startIndex) ? startIndex : findKey(startIndex));
         map.put(startIndex, value);
-        return Tuple.of(lastVal, null);
+        return Tuple.of(lastVal == null ? NullType.Null : lastVal, null);
+    }
+
+    /**
+     * Checks whether a key is found by its hash, which is the case for every type with value equality: numbers, bytes, bools, strs, null, and lists.
+     * Other keys, such as functions and maps, are compared to each key in turn with equalTo().
+     */
+    private static boolean isHashedByValue(Value key) {
+        return key instanceof LNumber || key instanceof LString || key instanceof LBoolean || key instanceof LByte || key instanceof NullType || key instanceof LList;
+    }
+
+    private Value findKey(Value key) {
+        for (Value k : map.keySet()) {
+            if (k.equalTo(key).isTrue()) return k;
+        }
+        return null;
     }
 
     @Override
     public LBoolean equalTo(Value other) {
         if (!(other instanceof LMap))
-            return (LBoolean) new LBoolean(false).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+            return LBoolean.False;
         boolean res = true;
         for (java.util.Map.Entry<Value, Value> entry : map.entrySet()) {
             Value key = entry.getKey();
             Value value = entry.getValue();
             Tuple<Value, Error> otherElement = other.elementAt(key, key);
             if (otherElement.getRight() != null)
-                return (LBoolean) new LBoolean(false).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+                return LBoolean.False;
             LBoolean equal = value.equalTo(otherElement.getLeft());
             if (!equal.isTrue()) {
                 res = false;
             }
         }
-        return (LBoolean) new LBoolean(res).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+        return LBoolean.of(res);
     }
 
     @Override
     public LBoolean notEqualTo(Value other) {
         if (!(other instanceof LMap))
-            return (LBoolean) new LBoolean(true).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+            return LBoolean.True;
         boolean res = true;
         for (java.util.Map.Entry<Value, Value> entry : map.entrySet()) {
             Value key = entry.getKey();
             Value value = entry.getValue();
             Tuple<Value, Error> otherElement = other.elementAt(key, key);
             if (otherElement.getRight() != null)
-                return (LBoolean) new LBoolean(true).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+                return LBoolean.True;
             LBoolean equal = value.equalTo(otherElement.getLeft());
             if (equal.isTrue()) {
                 res = false;
             }
         }
-        return (LBoolean) new LBoolean(res).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+        return LBoolean.of(res);
     }
 }
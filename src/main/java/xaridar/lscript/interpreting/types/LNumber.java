@@ -7,169 +7,384 @@ package xaridar.lscript.interpreting.types;
  * @author Xaridar
  */
 
+import xaridar.lscript.TokenEnum;
 import xaridar.lscript.Tuple;
 import xaridar.lscript.errors.Error;
+import xaridar.lscript.interpreting.Context;
+import xaridar.lscript.lexing.Position;
 
+/**
+ * An immutable numeric Value, which may be shared between any number of variables and expressions.
+ * Numbers carry no Position or Context; Errors about them are located by the Node that produced them.
+ */
 public abstract class LNumber extends BasicType {
 
-    java.lang.Number value;
+    private static final int INT = 0;
+    private static final int LONG = 1;
+    private static final int FLOAT = 2;
+    private static final int DOUBLE = 3;
+    private static final int UNORDERED = 2;
 
-    public LNumber(String type, java.lang.Number value) {
+    public LNumber(String type) {
         super(type);
-        this.value = value;
     }
 
     @Override
-    public java.lang.Number getValue() {
-        return value;
+    public abstract java.lang.Number getValue();
+
+    /**
+     * @return this number as a Java int, without boxing it.
+     */
+    public abstract int intValue();
+
+    /**
+     * @return this number as a Java long, without boxing it.
+     */
+    public abstract long longValue();
+
+    /**
+     * @return this number as a Java float, without boxing it.
+     */
+    public abstract float floatValue();
+
+    /**
+     * @return this number as a Java double, without boxing it.
+     */
+    public abstract double doubleValue();
+
+    @Override
+    public BasicType setContext(Context context) {
+        return this;
+    }
+
+    @Override
+    public BasicType setPos(Position posStart, Position posEnd) {
+        return this;
+    }
+
+    @Override
+    public void setType(String expectedType) {
+    }
+
+    /**
+     * Widens this number to a long or double, if it is being stored as one, so that it is not computed with less precision than its declared type.
+     * Floats are widened by their decimal form, so that a float literal such as 0.1 becomes the double closest to 0.1.
+     * @param type - The type the number is being stored as.
+     * @return an LLong or LDouble holding this number, or this number if it does not need to be widened.
+     */
+    public LNumber widenTo(String type) {
+        if (type.equals("long") && this instanceof LInt) return LLong.of(longValue());
+        if (type.equals("double") && this instanceof LFloat) return new LDouble(Double.parseDouble(toString()));
+        if (type.equals("double") && !(this instanceof LDouble)) return new LDouble(doubleValue());
+        return this;
+    }
+
+    /**
+     * Applies a binary operator between two numbers directly on their primitive values.
+     * The result is the same as that of the matching operation method, but no Tuple is allocated for it.
+     * @param opType - The type of the operator Token.
+     * @param left - The left operand.
+     * @param right - The right operand.
+     * @return the resulting LNumber or LBoolean, or null if the operands are not both numbers, or the operation cannot succeed and must be applied normally.
+     */
+    public static BasicType operate(TokenEnum opType, Value left, Value right) {
+        int leftRank = rankOf(left);
+        int rightRank = rankOf(right);
+        if (leftRank < 0 || rightRank < 0) return null;
+        return operate(opType, (LNumber) left, (LNumber) right, Math.max(leftRank, rightRank));
+    }
+
+    /**
+     * Finds the rank of a number in the promotion order int, long, float, double.
+     * As in Java, both operands of an operation are promoted to the higher of their two ranks.
+     * @param value - The Value to rank.
+     * @return the rank of the Value, or -1 if it is not a number.
+     */
+    private static int rankOf(Value value) {
+        if (value instanceof LInt) return INT;
+        if (value instanceof LFloat) return FLOAT;
+        if (value instanceof LLong) return LONG;
+        if (value instanceof LDouble) return DOUBLE;
+        return -1;
+    }
+
+    private static BasicType operate(TokenEnum opType, LNumber left, LNumber right, int rank) {
+        switch (opType) {
+            case TT_DIV:
+            case TT_MOD:
+                if (right.doubleValue() == 0) return null;
+                break;
+            case TT_POW:
+                return power(left, right, rank);
+            case TT_LT:
+            case TT_GT:
+            case TT_LEQ:
+            case TT_GEQ:
+            case TT_BOOLEQ:
+            case TT_NEQ:
+                return LBoolean.of(test(opType, compare(left, right, rank)));
+            default:
+                break;
+        }
+        switch (rank) {
+            case INT:
+                return intOperation(opType, left.intValue(), right.intValue());
+            case LONG:
+                return longOperation(opType, left.longValue(), right.longValue());
+            case FLOAT:
+                return floatOperation(opType, left.floatValue(), right.floatValue());
+            default:
+                return doubleOperation(opType, left.doubleValue(), right.doubleValue());
+        }
+    }
+
+    private static LNumber intOperation(TokenEnum opType, int a, int b) {
+        switch (opType) {
+            case TT_PLUS:
+                return LInt.of(a + b);
+            case TT_MINUS:
+                return LInt.of(a - b);
+            case TT_MUL:
+                return LInt.of(a * b);
+            case TT_DIV:
+                // 'int / int' returns an int if the quotient compares equal to the float quotient, or a float otherwise.
+                if ((float) a / (float) b == a / b) return LInt.of(a / b);
+                return new LFloat((float) a / (float) b);
+            case TT_MOD:
+                return LInt.of(a % b);
+            default:
+                return null;
+        }
+    }
+
+    private static LNumber longOperation(TokenEnum opType, long a, long b) {
+        switch (opType) {
+            case TT_PLUS:
+                return LLong.of(a + b);
+            case TT_MINUS:
+                return LLong.of(a - b);
+            case TT_MUL:
+                return LLong.of(a * b);
+            case TT_DIV:
+                if (a % b == 0) return LLong.of(a / b);
+                return new LDouble((double) a / (double) b);
+            case TT_MOD:
+                return LLong.of(a % b);
+            default:
+                return null;
+        }
+    }
+
+    private static LNumber floatOperation(TokenEnum opType, float a, float b) {
+        switch (opType) {
+            case TT_PLUS:
+                return new LFloat(a + b);
+            case TT_MINUS:
+                return new LFloat(a - b);
+            case TT_MUL:
+                return new LFloat(a * b);
+            case TT_DIV:
+                return new LFloat(a / b);
+            case TT_MOD:
+                return new LFloat(a % b);
+            default:
+                return null;
+        }
+    }
+
+    private static LNumber doubleOperation(TokenEnum opType, double a, double b) {
+        switch (opType) {
+            case TT_PLUS:
+                return new LDouble(a + b);
+            case TT_MINUS:
+                return new LDouble(a - b);
+            case TT_MUL:
+                return new LDouble(a * b);
+            case TT_DIV:
+                return new LDouble(a / b);
+            case TT_MOD:
+                return new LDouble(a % b);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Raises a number to a power. An int or long base keeps an integer type if the result is a whole number.
+     */
+    private static LNumber power(LNumber base, LNumber exponent, int rank) {
+        boolean wide = rank == LONG || rank == DOUBLE;
+        double result = wide ? Math.pow(base.doubleValue(), exponent.doubleValue()) : Math.pow(base.floatValue(), exponent.floatValue());
+        if (base instanceof LInt && !(exponent instanceof LLong) && (float) result == (int) result)
+            return LInt.of((int) result);
+        if ((base instanceof LInt || base instanceof LLong) && wide && result == (long) result)
+            return LLong.of((long) result);
+        return wide ? new LDouble(result) : new LFloat((float) result);
+    }
+
+    /**
+     * Compares two numbers after promoting them to the same rank.
+     * @return -1, 0, or 1 as left is less than, equal to, or greater than right; or UNORDERED if either is NaN.
+     */
+    private static int compare(LNumber left, LNumber right, int rank) {
+        switch (rank) {
+            case INT:
+                return Integer.compare(left.intValue(), right.intValue());
+            case LONG:
+                return Long.compare(left.longValue(), right.longValue());
+            case FLOAT:
+                return compare(left.floatValue(), right.floatValue());
+            default:
+                return compare(left.doubleValue(), right.doubleValue());
+        }
+    }
+
+    private static int compare(double a, double b) {
+        if (a < b) return -1;
+        if (a > b) return 1;
+        if (a == b) return 0;
+        return UNORDERED;
+    }
+
+    /**
+     * Checks the result of compare() against a comparison operator.
+     * @param opType - The type of the operator Token.
+     * @param order - The result of compare().
+     * @return True if the comparison holds.
+     */
+    private static boolean test(TokenEnum opType, int order) {
+        switch (opType) {
+            case TT_LT:
+                return order == -1;
+            case TT_GT:
+                return order == 1;
+            case TT_LEQ:
+                return order == -1 || order == 0;
+            case TT_GEQ:
+                return order == 0 || order == 1;
+            case TT_BOOLEQ:
+                return order == 0;
+            default:
+                return order != 0;
+        }
     }
 
     // operations
 
+    /**
+     * Applies an operation to this number and another Value, in the form returned by the operation methods.
+     * @param opType - The type of the operator Token.
+     * @param other - The other operand.
+     * @return A Tuple containing the result, or null if the other Value is not a number.
+     */
+    private Tuple<BasicType, Error> operation(TokenEnum opType, BasicType other) {
+        BasicType result = operate(opType, this, other);
+        if (result == null) return null;
+        return Tuple.of(result, null);
+    }
+
     @Override
     public Tuple<BasicType, Error> addedTo(BasicType other) {
-        if (other instanceof LNumber || other instanceof LByte) {
-            LNumber num;
-            if (this instanceof LInt && (other instanceof LInt || other instanceof LByte))
-                num = new LInt(value.intValue() + ((LNumber) other).getValue().intValue());
-            else
-                num = new LFloat(value.floatValue() + ((LNumber) other).getValue().floatValue());
-            return Tuple.of(num.setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
-        }
-        return null;
+        if (other instanceof LByte)
+            return operation(TokenEnum.TT_PLUS, LInt.of(((LByte) other).getValue()));
+        return operation(TokenEnum.TT_PLUS, other);
     }
 
     @Override
     public Tuple<BasicType, Error> subtractedBy(BasicType other) {
-        if (other instanceof LNumber) {
-            LNumber num;
-            if (this instanceof LInt && other instanceof LInt)
-                num = new LInt(value.intValue() - ((LNumber) other).getValue().intValue());
-            else
-                num = new LFloat(value.floatValue() - ((LNumber) other).getValue().floatValue());
-            return Tuple.of(num.setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
-        }
-        return null;
-
+        return operation(TokenEnum.TT_MINUS, other);
     }
 
     @Override
     public Tuple<BasicType, Error> multipliedBy(BasicType other) {
-        if (other instanceof LNumber) {
-            LNumber num;
-            if (this instanceof LInt && other instanceof LInt)
-                num = new LInt(value.intValue() * ((LNumber) other).getValue().intValue());
-            else
-                num = new LFloat(value.floatValue() * ((LNumber) other).getValue().floatValue());
-            return Tuple.of(num.setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
-        }
-        return null;
-
+        return operation(TokenEnum.TT_MUL, other);
     }
 
     @Override
     public Tuple<BasicType, Error> dividedBy(BasicType other) {
-        if (other instanceof LNumber) {
-            if (((LNumber) other).getValue().floatValue() == 0)
-                return Tuple.of(null, new Error.RunTimeError(other.getPosStart(), other.getPosEnd(), "Division by 0", getContext()));
-            LNumber num;
-            java.lang.Number otherValue = ((LNumber) other).getValue();
-            if (this instanceof LInt && other instanceof LInt && value.floatValue() / otherValue.floatValue() == value.intValue() / otherValue.intValue()) {
-                num = new LInt(value.intValue() / otherValue.intValue());
-            } else
-                num = new LFloat(value.floatValue() / otherValue.floatValue());
-            return Tuple.of(num.setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
-        }
-        return null;
-
+        if (other instanceof LNumber && ((LNumber) other).doubleValue() == 0)
+            return Tuple.of(null, new Error.RunTimeError(other.getPosStart(), other.getPosEnd(), "Division by 0", getContext()));
+        return operation(TokenEnum.TT_DIV, other);
     }
 
     @Override
     public Tuple<BasicType, Error> toThePowerOf(BasicType other) {
-        if (other instanceof LNumber) {
-            LNumber num;
-            java.lang.Number endResult = Double.valueOf(Math.pow(value.floatValue(), ((LNumber) other).getValue().floatValue()));
-            if (this instanceof LInt && endResult.floatValue() == endResult.intValue())
-                num = new LInt(endResult.intValue());
-            else
-                num = new LFloat(endResult.floatValue());
-            return Tuple.of(num.setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
-        }
-        return null;
-
+        return operation(TokenEnum.TT_POW, other);
     }
 
     @Override
     public Tuple<BasicType, Error> modulo(BasicType other) {
-        if (other instanceof LNumber) {
-            LNumber num;
-            if (this instanceof LInt && other instanceof LInt)
-                num = new LInt(value.intValue() % ((LInt) other).getValue());
-            else
-                num = new LFloat(value.floatValue() % ((LNumber) other).getValue().floatValue());
-            return Tuple.of(num.setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
-        }
-        return null;
-
+        if (other instanceof LNumber && ((LNumber) other).doubleValue() == 0)
+            return Tuple.of(null, new Error.RunTimeError(other.getPosStart(), other.getPosEnd(), "Division by 0", getContext()));
+        return operation(TokenEnum.TT_MOD, other);
     }
 
     @Override
     public Tuple<BasicType, Error> lessThan(BasicType other) {
-        if (other instanceof LNumber) {
-            LBoolean bool = new LBoolean(value.floatValue() < ((LNumber) other).getValue().floatValue());
-            return Tuple.of(bool.setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
-        }
-        return null;
-
+        return operation(TokenEnum.TT_LT, other);
     }
 
     @Override
     public Tuple<BasicType, Error> greaterThan(BasicType other) {
-        if (other instanceof LNumber) {
-            LBoolean bool = new LBoolean(value.floatValue() > ((LNumber) other).getValue().floatValue());
-            return Tuple.of(bool.setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
-        }
-        return null;
-
+        return operation(TokenEnum.TT_GT, other);
     }
 
     @Override
     public Tuple<BasicType, Error> lessThanOrEqualTo(BasicType other) {
-        if (other instanceof LNumber) {
-            LBoolean bool = new LBoolean(value.floatValue() <= ((LNumber) other).getValue().floatValue());
-            return Tuple.of(bool.setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
-        }
-        return null;
-
+        return operation(TokenEnum.TT_LEQ, other);
     }
 
     @Override
     public Tuple<BasicType, Error> greaterThanOrEqualTo(BasicType other) {
-        if (other instanceof LNumber) {
-            LBoolean bool = new LBoolean(value.floatValue() >= ((LNumber) other).getValue().floatValue());
-            return Tuple.of(bool.setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
-        }
-        return null;
+        return operation(TokenEnum.TT_GEQ, other);
+    }
 
+    /**
+     * A number is equal to any number of exactly the same value, so that a map finds a key by hash whatever its rank.
+     * Unlike '==', ints and longs are not rounded to floats first, as that would make large integers equal to their neighbours.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof LNumber) || rankOf((Value) other) < 0) return false;
+        LNumber number = (LNumber) other;
+        boolean integral = rankOf(this) < FLOAT;
+        if (integral && rankOf(number) < FLOAT) return longValue() == number.longValue();
+        if (integral) return equalsIntegral(number.doubleValue(), longValue());
+        if (rankOf(number) < FLOAT) return equalsIntegral(doubleValue(), number.longValue());
+        return doubleValue() == number.doubleValue();
     }
 
+    /**
+     * Whole numbers hash as longs at every rank, so that numbers which are equal share a hash.
+     */
     @Override
-    public LBoolean equalTo(Value other) {
-        if (other instanceof LNumber) {
-            LBoolean bool = new LBoolean(value.floatValue() == ((LNumber) other).getValue().floatValue());
-            return (LBoolean) (bool.setContext(getContext()).setPos(getPosStart(), getPosEnd()));
-        }
-        return (LBoolean) new LBoolean(false).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+    public int hashCode() {
+        if (rankOf(this) < FLOAT) return Long.hashCode(longValue());
+        double value = doubleValue();
+        if (isIntegral(value)) return Long.hashCode((long) value);
+        return Double.hashCode(value);
+    }
+
+    /**
+     * @return true if a floating point value is a whole number within the range of a long.
+     */
+    private static boolean isIntegral(double value) {
+        return value >= -0x1p63 && value < 0x1p63 && value == (long) value;
+    }
 
+    private static boolean equalsIntegral(double value, long integral) {
+        return isIntegral(value) && (long) value == integral;
     }
 
     @Override
-    public LBoolean notEqualTo(Value other) {
-        if (other instanceof LNumber) {
-            LBoolean bool = new LBoolean(value.floatValue() != ((LNumber) other).getValue().floatValue());
-            return (LBoolean) bool.setContext(getContext()).setPos(getPosStart(), getPosEnd());
-        }
-        return (LBoolean) new LBoolean(true).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+    public LBoolean equalTo(Value other) {
+        BasicType result = operate(TokenEnum.TT_BOOLEQ, this, other);
+        return result == null ? LBoolean.False : (LBoolean) result;
+    }
 
+    @Override
+    public LBoolean notEqualTo(Value other) {
+        BasicType result = operate(TokenEnum.TT_NEQ, this, other);
+        return result == null ? LBoolean.True : (LBoolean) result;
     }
 }
@@ -12,62 +12,149 @@ import xaridar.lscript.interpreting.Context;
 import xaridar.lscript.errors.Error;
 import xaridar.lscript.interpreting.RunTimeResult;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import xaridar.lscript.parsing.nodes.StringNode;
 
+/**
+ * A str. A str is a view of a range of characters in a source, which is either a String or a StringBuilder, so that slicing and indexing a str share its characters instead of copying them.
+ * Strs built by concatenation are held as a range of a StringBuilder, which the str ending it can extend in place, so that appending to a str in a loop takes linear time.
+ * The text of a str is only copied out of its source when it is first needed as a String.
+ */
 public class LString extends BasicType {
+    private static final int MIN_BUFFERED_LENGTH = 256;
 
-    private final String value;
+    private String value;
+    private final CharSequence source;
+    private final int offset;
+    private final int length;
 
     public LString(String value) {
         super("str");
         this.value = value;
+        this.source = value;
+        this.offset = 0;
+        this.length = value.length();
     }
 
-    public LString(String value, Context context) {
+    /**
+     * @param source - The String or StringBuilder holding this str's text. Characters of a StringBuilder are only ever appended past the end of the strs viewing it, so the range of this str never changes.
+     * @param offset - The index of the first character of this str in its source.
+     * @param length - The length of this str.
+     */
+    private LString(CharSequence source, int offset, int length) {
         super("str");
-        setContext(context);
-        List<String> allMatches = new ArrayList<>();
-        Matcher m = Pattern.compile("((?<=%)\\w*)")
-                .matcher(value);
-        while (m.find()) {
-            allMatches.add(m.group());
+        this.value = null;
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Creates the str for a string literal, interpolating the variables named after each '%' in it.
+     * If any of the variables is not defined, the literal is used exactly as it was written.
+     * @param node - The StringNode holding the literal, already split around its interpolated variables.
+     * @param context - The Context to look the variables up in.
+     * @return an LString holding the interpolated text.
+     */
+    public static LString interpolate(StringNode node, Context context) {
+        String[] names = node.getInterpolatedNames();
+        String[] literals = node.getLiterals();
+        LString str;
+        if (names.length == 0) {
+            str = new LString(literals[0]);
+        } else {
+            StringBuilder builder = new StringBuilder(literals[0]);
+            for (int i = 0; i < names.length; i++) {
+                Value value = context.getSymbolTable().get(names[i]);
+                if (value == null) {
+                    builder = null;
+                    break;
+                }
+                builder.append(value.toString()).append(literals[i + 1]);
+            }
+            str = new LString(builder == null ? (String) node.getToken().getValue() : builder.toString());
         }
-        StringBuilder builder = new StringBuilder();
-        int index = 0;
-        if (allMatches.size() > 0)
-            builder.append(value, index, value.indexOf("%"));
-        else {
-            this.value = value;
-            return;
+        str.setContext(context);
+        return str;
+    }
+
+    /**
+     * @return the text of this str, copying it out of its source the first time it is needed.
+     */
+    private String value() {
+        if (value == null) value = source.subSequence(offset, offset + length).toString();
+        return value;
+    }
+
+    /**
+     * @return the number of characters in this str, without copying its text.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @param index - The index of a character in this str.
+     * @return the character at the given index, without copying the text of this str.
+     */
+    public char charAt(int index) {
+        return source.charAt(offset + index);
+    }
+
+    /**
+     * Concatenates this str and some text. If this str ends its builder, the text is appended to the builder in place; the strs sharing the builder only ever read their own range of it, so none of them change.
+     * @param other - The Value whose text is appended.
+     * @return a new str holding the text of both.
+     */
+    private LString concat(Value other) {
+        LString str = other instanceof LString ? (LString) other : null;
+        String text = str == null ? other.toString() : null;
+        int otherLength = str == null ? text.length() : str.length;
+        if (source instanceof StringBuilder && source.length() == offset + length) {
+            StringBuilder target = (StringBuilder) source;
+            if (str != null) str.appendTo(target);
+            else target.append(text);
+            return new LString(target, offset, length + otherLength);
         }
-        index += value.substring(index, value.indexOf("%")).length();
-        for (String arg : allMatches) {
-            if (getContext().getSymbolTable().get(arg) == null) {
-                this.value = value;
-                return;
-            }
-            builder.append(getContext().getSymbolTable().get(arg).toString());
-            index++;
-            index += arg.length();
-            int end = value.indexOf("%", index);
-            if (end == -1) end = value.length();
-            builder.append(value, index, end);
-            index += value.substring(index, end).length();
+        StringBuilder target;
+        // Short strs are not worth a builder of their own.
+        if (length + otherLength < MIN_BUFFERED_LENGTH) target = new StringBuilder(length + otherLength);
+        else target = new StringBuilder(2 * (length + otherLength));
+        appendTo(target);
+        if (str != null) str.appendTo(target);
+        else target.append(text);
+        if (length + otherLength < MIN_BUFFERED_LENGTH) return new LString(target.toString());
+        return new LString(target, 0, target.length());
+    }
+
+    private void appendTo(StringBuilder target) {
+        if (value != null) target.append(value);
+        else target.append(source, offset, offset + length);
+    }
+
+    /**
+     * Repeats this str, presizing the builder to hold every repetition.
+     * @param count - The number of times to repeat this str.
+     * @return a new str holding this str's text the given number of times, or an empty str if the count is not positive.
+     */
+    private LString repeat(int count) {
+        if (count <= 0 || length == 0) return new LString("");
+        if (count == 1) return new LString(source, offset, length);
+        StringBuilder target = new StringBuilder(Math.multiplyExact(length, count));
+        for (int i = 0; i < count; i++) {
+            appendTo(target);
         }
-        this.value = builder.toString();
+        return new LString(target, 0, target.length());
     }
 
     @Override
     public String toString() {
-        return value;
+        return value();
     }
 
     @Override
     public LString copy() {
-        LString s = new LString(value);
+        LString s = new LString(source, offset, length);
+        s.value = value;
         s.setPos(getPosStart(), getPosEnd());
         s.setContext(getContext());
         return s;
@@ -80,7 +167,7 @@ public class LString extends BasicType {
 
     @Override
     public String getValue() {
-        return value;
+        return value();
     }
 
     // ops
@@ -88,13 +175,13 @@ public class LString extends BasicType {
 
     @Override
     public Tuple<BasicType, Error> addedTo(BasicType other) {
-        return Tuple.of(new LString(value + other.toString()).setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
+        return Tuple.of(concat(other).setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
     }
 
     @Override
     public Tuple<BasicType, Error> multipliedBy(BasicType other) {
         if (other instanceof LInt) {
-            return Tuple.of(new LString(new String(new char[(((LInt) other).getValue())]).replace("\0", value)).setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
+            return Tuple.of(repeat(((LInt) other).getValue()).setContext(getContext()).setPos(getPosStart(), getPosEnd()), null);
         }
         return null;
     }
@@ -103,35 +190,69 @@ public class LString extends BasicType {
     public Tuple<Value, Error> elementAt(Value startIndex, Value endIndex) {
         if (!(startIndex instanceof LInt) || !(endIndex instanceof LInt))
             return Tuple.of(null, new Error.RunTimeError(startIndex.getPosStart(), endIndex.getPosEnd(), "lists can only be indexed or sliced by integer values.", context));
-        int startNum = ((LInt) startIndex).getValue();
-        int endNum = ((LInt) endIndex).getValue();
+        int startNum = ((LInt) startIndex).intValue();
+        int endNum = ((LInt) endIndex).intValue();
         if (startNum < 0)
-            startNum = startNum + value.length();
-        if (startNum > value.length()) return Tuple.of(null, new Error.IndexOutOfBoundsError(startIndex.getPosStart(), startIndex.getPosEnd(), "Index " + startIndex.getValue() + " out of range for length " + value.length(), context));
+            startNum = startNum + length;
+        // A negative index still below 0 once adjusted would read the source outside this str's range, as strs may be views of a larger source.
+        if (startNum < 0 || startNum > length) return Tuple.of(null, new Error.IndexOutOfBoundsError(startIndex.getPosStart(), startIndex.getPosEnd(), "Index " + startIndex.getValue() + " out of range for length " + length, context));
         if (endNum < 0)
-            endNum = endNum + value.length();
-        if (endNum > value.length()) return Tuple.of(null, new Error.IndexOutOfBoundsError(endIndex.getPosStart(), endIndex.getPosEnd(), "Index " + endIndex.getValue() + " out of range for length " + value.length(), context));
+            endNum = endNum + length;
+        if (endNum < 0 || endNum > length) return Tuple.of(null, new Error.IndexOutOfBoundsError(endIndex.getPosStart(), endIndex.getPosEnd(), "Index " + endIndex.getValue() + " out of range for length " + length, context));
         if (startNum > endNum) return Tuple.of(null, new Error.RunTimeError(startIndex.getPosStart(), endIndex.getPosEnd(), "Start index cannot be greater than end index", context));
+        // Indexing gives the character at the start index, and slicing a view of the characters between the indices; neither copies the characters.
         if (startNum == endNum) {
-            return Tuple.of(new LString(String.valueOf(value.charAt(startNum))), null);
+            if (startNum == length) return Tuple.of(null, new Error.IndexOutOfBoundsError(startIndex.getPosStart(), startIndex.getPosEnd(), "Index " + startIndex.getValue() + " out of range for length " + length, context));
+            return Tuple.of(new LString(source, offset + startNum, 1), null);
         } else {
-            return Tuple.of(new LString(value.substring(startNum, endNum)), null);
+            return Tuple.of(new LString(source, offset + startNum, endNum - startNum), null);
         }
     }
 
     @Override
     public LBoolean equalTo(Value other) {
         if (!(other instanceof LString)) {
-            return (LBoolean) new LBoolean(false).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+            return LBoolean.False;
         }
-        return (LBoolean) new LBoolean(value.equals(other.getValue())).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+        return LBoolean.of(contentEquals((LString) other));
     }
 
     @Override
     public LBoolean notEqualTo(Value other) {
         if (!(other instanceof LString)) {
-            return (LBoolean) new LBoolean(false).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+            return LBoolean.False;
+        }
+        return LBoolean.of(!contentEquals((LString) other));
+    }
+
+    /**
+     * An LString is equal to another LString with the same text, so strings can be used as keys.
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof LString && contentEquals((LString) other);
+    }
+
+    /**
+     * Compares the characters of two strs in place, so that comparing a character or slice of a str does not copy it.
+     */
+    private boolean contentEquals(LString other) {
+        if (other.length != length) return false;
+        if (value != null && other.value != null) return value.equals(other.value);
+        for (int i = 0; i < length; i++) {
+            if (charAt(i) != other.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        if (value != null) return value.hashCode();
+        // The same hash as the String holding this str's text.
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + charAt(i);
         }
-        return (LBoolean) new LBoolean(!value.equals(other.getValue())).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+        return hash;
     }
 }
@@ -0,0 +1,92 @@
+package xaridar.lscript.interpreting.types;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the results of a function declared with the 'memo' modifier, keyed by the Values of its args.
+ * The cache is shared by every copy of the function, and holds at most 'lscript.memo.size' results, evicting the least recently used.
+ * Only calls whose args are numbers, bytes, bools, strs, null, or lists of them are cached, and only results which cannot be changed by their caller are stored.
+ */
+public class MemoCache {
+    public static int maxSize = Integer.getInteger("lscript.memo.size", 1024);
+
+    private final Map<List<Object>, Value> results = new LinkedHashMap<List<Object>, Value>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, Value> eldest) {
+            return size() > maxSize;
+        }
+    };
+    private int hits;
+    private int misses;
+
+    /**
+     * Builds the key for a call, copying any lists so that the key cannot be changed once it is stored.
+     * Each Value is paired with its type, since equal numbers of different types, such as 1 and 1.0, can give different results.
+     * @param args - The args of the call.
+     * @return The key for the call, or null if an arg cannot be compared by value and the call must not be cached.
+     */
+    public List<Object> keyOf(List<Value> args) {
+        return freeze(args);
+    }
+
+    private static List<Object> freeze(List<Value> values) {
+        List<Object> key = new ArrayList<>(values.size() * 2);
+        for (Value value : values) {
+            Object frozen;
+            if (value instanceof LList) frozen = freeze(((LList) value).getElements());
+            else if (isImmutable(value)) frozen = value;
+            else return null;
+            if (frozen == null) return null;
+            key.add(value.getClass());
+            key.add(frozen);
+        }
+        return key;
+    }
+
+    private static boolean isImmutable(Value value) {
+        return value instanceof LNumber || value instanceof LByte || value instanceof LBoolean || value instanceof LString || value instanceof NullType;
+    }
+
+    /**
+     * Finds the stored result of a call, counting it as a hit or a miss.
+     * @param key - The key built for the call.
+     * @return The stored result, or null if the call has not been cached.
+     */
+    public Value get(List<Object> key) {
+        Value result = results.get(key);
+        if (result != null) hits++;
+        else misses++;
+        return result;
+    }
+
+    /**
+     * Stores the result of a call, if it cannot be changed by the function's callers.
+     * @param key - The key built for the call.
+     * @param result - The Value returned by the call.
+     */
+    public void put(List<Object> key, Value result) {
+        if (isImmutable(result)) results.put(key, result);
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    public int size() {
+        return results.size();
+    }
+}
@@ -28,13 +28,13 @@ public class Module extends Value {
     @Override
     public LBoolean equalTo(Value other) {
         if (!(other instanceof Module))
-            return (LBoolean) new LBoolean(false).setContext(context).setPos(posStart, posEnd);
-        return (LBoolean) new LBoolean(name.equals(((Module) other).getName())).setContext(context).setPos(posStart, posEnd);
+            return LBoolean.False;
+        return LBoolean.of(name.equals(((Module) other).getName()));
     }
 
     @Override
     public LBoolean notEqualTo(Value other) {
-        return (LBoolean) new LBoolean(!equalTo(other).isTrue()).setContext(context).setPos(posStart, posEnd);
+        return LBoolean.of(!equalTo(other).isTrue());
     }
 
     public String getName() {
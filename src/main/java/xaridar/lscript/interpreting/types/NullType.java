@@ -29,12 +29,12 @@ public class NullType extends BasicType {
 
         @Override
         public LBoolean equalTo(Value other) {
-            return (LBoolean) new LBoolean(false).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+            return LBoolean.False;
         }
 
         @Override
         public LBoolean notEqualTo(Value other) {
-            return (LBoolean) new LBoolean(true).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+            return LBoolean.True;
         }
     };
 
@@ -60,16 +60,29 @@ public class NullType extends BasicType {
     @Override
     public LBoolean equalTo(Value other) {
         if (!(other instanceof NullType)) {
-            return (LBoolean) new LBoolean(false).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+            return LBoolean.False;
         }
-        return (LBoolean) new LBoolean(true).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+        return LBoolean.True;
     }
 
     @Override
     public LBoolean notEqualTo(Value other) {
         if (!(other instanceof NullType)) {
-            return (LBoolean) new LBoolean(true).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+            return LBoolean.True;
         }
-        return (LBoolean) new LBoolean(false).setContext(getContext()).setPos(getPosStart(), getPosEnd());
+        return LBoolean.False;
+    }
+
+    /**
+     * Every NullType is equal to null, as it is by equalTo(), so that null can be used as a key.
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof NullType;
+    }
+
+    @Override
+    public int hashCode() {
+        return 0;
     }
 }
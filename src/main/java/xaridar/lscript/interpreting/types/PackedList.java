@@ -0,0 +1,430 @@
+package xaridar.lscript.interpreting.types;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * The elements of a list, packed into an array of Java ints, floats, or bytes while every element is an int, float, or byte, so that a large list of numbers does not hold a Value for each element.
+ * The kind of array is chosen by the first element added, and the elements are moved into an array of Values the first time an element of another type is added or set.
+ * Elements of a packed list are given out as new Values each time they are read; since ints and floats are immutable and carry no Position or Context, and bytes read from files carry neither, this cannot be told apart from storing the Values.
+ * Slices of a list, and lists built from it by '+', share its arrays until one of them is changed.
+ * A list setting an element of a shared array writes it in place and logs the element it replaced, so that the other lists can recover their elements from the log if they are ever used again; any other change copies the list's elements out first.
+ */
+public class PackedList extends AbstractList<Value> implements RandomAccess {
+    private static final int EMPTY = 0;
+    private static final int INT = 1;
+    private static final int FLOAT = 2;
+    private static final int BYTE = 3;
+    private static final int GENERIC = 4;
+
+    /**
+     * The arrays holding the elements of one or more lists, each of which sees a range of them.
+     * A Store counts the lists sharing it, so that a list only changes it in place when no other list can see the change.
+     * Any list whose range ends where the Store's elements do may still append to it in place, since the appended elements are outside every other list's range.
+     * The latest list to set an element of a shared Store may also set elements in place, logging each element it replaces; lists which have not seen every entry of the log are stale, and undo the newer entries on a copy of their elements before they are next used.
+     */
+    private static class Store {
+        int kind;
+        int[] ints;
+        float[] floats;
+        byte[] bytes;
+        Value[] values;
+        int used;
+        int owners = 1;
+        int[] logIndices;
+        Value[] logElements;
+        int logSize;
+
+        Store(int kind) {
+            this.kind = kind;
+        }
+
+        Value box(int index) {
+            switch (kind) {
+                case INT:
+                    return LInt.of(ints[index]);
+                case FLOAT:
+                    return new LFloat(floats[index]);
+                case BYTE:
+                    return new LByte(bytes[index]);
+                default:
+                    return values[index];
+            }
+        }
+
+        void store(int index, Value element) {
+            switch (kind) {
+                case INT:
+                    ints[index] = ((LInt) element).intValue();
+                    break;
+                case FLOAT:
+                    floats[index] = ((LFloat) element).floatValue();
+                    break;
+                case BYTE:
+                    bytes[index] = ((LByte) element).getValue();
+                    break;
+                default:
+                    values[index] = element;
+            }
+        }
+
+        Object array() {
+            switch (kind) {
+                case INT:
+                    return ints;
+                case FLOAT:
+                    return floats;
+                case BYTE:
+                    return bytes;
+                default:
+                    return values;
+            }
+        }
+
+        int capacity() {
+            switch (kind) {
+                case INT:
+                    return ints == null ? 0 : ints.length;
+                case FLOAT:
+                    return floats == null ? 0 : floats.length;
+                case BYTE:
+                    return bytes == null ? 0 : bytes.length;
+                default:
+                    return values == null ? 0 : values.length;
+            }
+        }
+
+        void ensureCapacity(int minCapacity, int initialCapacity) {
+            int capacity = capacity();
+            if (minCapacity <= capacity) return;
+            int newCapacity = capacity == 0 ? Math.max(initialCapacity, minCapacity) : Math.max(capacity + (capacity >> 1), minCapacity);
+            switch (kind) {
+                case INT:
+                    ints = ints == null ? new int[newCapacity] : Arrays.copyOf(ints, newCapacity);
+                    break;
+                case FLOAT:
+                    floats = floats == null ? new float[newCapacity] : Arrays.copyOf(floats, newCapacity);
+                    break;
+                case BYTE:
+                    bytes = bytes == null ? new byte[newCapacity] : Arrays.copyOf(bytes, newCapacity);
+                    break;
+                default:
+                    values = values == null ? new Value[newCapacity] : Arrays.copyOf(values, newCapacity);
+            }
+        }
+
+        /**
+         * Moves the elements of this Store into an array of Values, so that it can hold elements of any type.
+         */
+        void unpack() {
+            Value[] unpacked = new Value[Math.max(capacity(), 1)];
+            for (int i = 0; i < used; i++) {
+                unpacked[i] = box(i);
+            }
+            kind = GENERIC;
+            ints = null;
+            floats = null;
+            bytes = null;
+            values = unpacked;
+        }
+
+        void move(int from, int to, int count) {
+            Object array = array();
+            System.arraycopy(array, from, array, to, count);
+        }
+
+        /**
+         * Records the element about to be replaced at an index, for the lists which must still see it.
+         */
+        void log(int index, Value element) {
+            if (logIndices == null || logSize == logIndices.length) {
+                int newCapacity = logIndices == null ? 8 : logSize + (logSize >> 1);
+                logIndices = logIndices == null ? new int[newCapacity] : Arrays.copyOf(logIndices, newCapacity);
+                logElements = logElements == null ? new Value[newCapacity] : Arrays.copyOf(logElements, newCapacity);
+            }
+            logIndices[logSize] = index;
+            logElements[logSize] = element;
+            logSize++;
+        }
+    }
+
+    /**
+     * The Store of every list which has never held an element. It is never changed, since the first element added to a list always moves it to a Store of the element's kind.
+     */
+    private static final Store NONE = new Store(EMPTY);
+
+    private Store store;
+    private int offset;
+    private int size;
+    private int version;
+    private final int initialCapacity;
+
+    public PackedList() {
+        this(10);
+    }
+
+    /**
+     * @param initialCapacity - The number of elements to make room for when the first element is added.
+     */
+    public PackedList(int initialCapacity) {
+        this(NONE, 0, 0, initialCapacity);
+    }
+
+    private PackedList(Store store, int offset, int size, int initialCapacity) {
+        this.store = store;
+        this.offset = offset;
+        this.size = size;
+        this.version = store.logSize;
+        this.initialCapacity = Math.max(initialCapacity, 1);
+    }
+
+    /**
+     * Creates a list of bytes packed into an existing array, which the list takes ownership of.
+     * @param bytes - The bytes of the list.
+     * @return a new PackedList holding the bytes.
+     */
+    public static PackedList of(byte[] bytes) {
+        Store store = new Store(BYTE);
+        store.bytes = bytes;
+        store.used = bytes.length;
+        return new PackedList(store, 0, bytes.length, bytes.length);
+    }
+
+    /**
+     * Creates a list holding the elements of a collection, sharing them with the collection if it is itself a PackedList.
+     * @param values - The elements of the list.
+     * @return a new PackedList holding the elements.
+     */
+    public static PackedList copyOf(Collection<? extends Value> values) {
+        if (values instanceof PackedList) {
+            PackedList list = (PackedList) values;
+            return list.slice(0, list.size);
+        }
+        PackedList list = new PackedList(values.size());
+        list.addAll(values);
+        return list;
+    }
+
+    /**
+     * Creates a list holding a range of the elements of this list, without copying them; the elements are only copied once either list is changed.
+     * @param fromIndex - The index of the first element of the range.
+     * @param toIndex - The index after the last element of the range.
+     * @return a new PackedList sharing the elements of this list between the indices.
+     */
+    public PackedList slice(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", Size: " + size);
+        update();
+        if (store != NONE) store.owners++;
+        return new PackedList(store, offset + fromIndex, toIndex - fromIndex, initialCapacity);
+    }
+
+    private static int kindOf(Value value) {
+        if (value == null) return GENERIC;
+        Class<?> type = value.getClass();
+        if (type == LInt.class) return INT;
+        if (type == LFloat.class) return FLOAT;
+        if (type == LByte.class) return BYTE;
+        return GENERIC;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Value get(int index) {
+        checkIndex(index, size);
+        update();
+        return store.box(offset + index);
+    }
+
+    @Override
+    public Value set(int index, Value element) {
+        checkIndex(index, size);
+        update();
+        Value old = store.box(offset + index);
+        int elementKind = kindOf(element);
+        if (store.owners > 1 && (store.kind == elementKind || store.kind == GENERIC) && store.logSize < store.used) {
+            // The log is kept shorter than the Store, so that copying the elements out when it is full costs no more than the writes it saved.
+            store.log(offset + index, old);
+            version = store.logSize;
+        } else {
+            own(elementKind);
+        }
+        store.store(offset + index, element);
+        return old;
+    }
+
+    @Override
+    public void add(int index, Value element) {
+        checkIndex(index, size + 1);
+        update();
+        int elementKind = kindOf(element);
+        if (!(index == size && canAppend(elementKind))) own(elementKind);
+        store.ensureCapacity(offset + size + 1, initialCapacity);
+        if (index < size) store.move(offset + index, offset + index + 1, size - index);
+        store.store(offset + index, element);
+        size++;
+        store.used = offset + size;
+        modCount++;
+    }
+
+    @Override
+    public Value remove(int index) {
+        checkIndex(index, size);
+        update();
+        Value old = store.box(offset + index);
+        own(store.kind);
+        if (index < size - 1) store.move(offset + index + 1, offset + index, size - index - 1);
+        size--;
+        store.used = offset + size;
+        if (store.kind == GENERIC) store.values[offset + size] = null;
+        modCount++;
+        return old;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex == toIndex) return;
+        update();
+        if (fromIndex == 0 && toIndex == size && store.owners > 1) {
+            // No elements are left to copy, so a shared Store is simply left to the other lists.
+            size = 0;
+            own(store.kind);
+            modCount++;
+            return;
+        }
+        own(store.kind);
+        if (toIndex < size) store.move(offset + toIndex, offset + fromIndex, size - toIndex);
+        int newSize = size - (toIndex - fromIndex);
+        if (store.kind == GENERIC) Arrays.fill(store.values, offset + newSize, offset + size, null);
+        size = newSize;
+        store.used = offset + size;
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Value> c) {
+        if (!(c instanceof PackedList)) return super.addAll(c);
+        PackedList other = (PackedList) c;
+        int added = other.size;
+        if (added == 0) return false;
+        other.update();
+        update();
+        if (size != 0 && store.kind != other.store.kind) return super.addAll(c);
+        // The other list may be this one, so its Store and range are taken before this list's Store can change.
+        Store source = other.store;
+        int sourceOffset = other.offset;
+        if (!canAppend(source.kind)) own(source.kind);
+        store.ensureCapacity(offset + size + added, initialCapacity);
+        System.arraycopy(source.array(), sourceOffset, store.array(), offset + size, added);
+        size += added;
+        store.used = offset + size;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Finds an int or byte by comparing it with the packed elements directly; any other element is found as by any other list.
+     */
+    @Override
+    public int indexOf(Object o) {
+        update();
+        if (store.kind == INT && o instanceof LInt) {
+            int target = ((LInt) o).intValue();
+            for (int i = 0; i < size; i++) {
+                if (store.ints[offset + i] == target) return i;
+            }
+            return -1;
+        }
+        if (store.kind == BYTE && o instanceof LByte) {
+            byte target = ((LByte) o).getValue();
+            for (int i = 0; i < size; i++) {
+                if (store.bytes[offset + i] == target) return i;
+            }
+            return -1;
+        }
+        return super.indexOf(o);
+    }
+
+    /**
+     * Brings a stale list up to date, by copying its elements out of the Store and undoing the entries of the log it has not seen.
+     * Every method reading the Store's arrays calls this first, so that they only ever see the elements of an up to date list.
+     */
+    private void update() {
+        if (version == store.logSize) return;
+        Store copy = new Store(store.kind);
+        copy.ensureCapacity(size + 1, initialCapacity);
+        if (size != 0) System.arraycopy(store.array(), offset, copy.array(), 0, size);
+        // Undoing the newest entries first leaves each element as it was when this list was last up to date.
+        for (int i = store.logSize - 1; i >= version; i--) {
+            int index = store.logIndices[i] - offset;
+            if (index >= 0 && index < size) copy.store(index, store.logElements[i]);
+        }
+        copy.used = size;
+        store.owners--;
+        store = copy;
+        offset = 0;
+        version = 0;
+    }
+
+    /**
+     * Checks whether an element of the given kind can be appended to this list's Store in place, even if other lists share it.
+     */
+    private boolean canAppend(int elementKind) {
+        return size != 0 && store.kind == elementKind && store.used == offset + size;
+    }
+
+    /**
+     * Prepares this list's Store to be changed, copying this list's elements into a Store of its own if any other list shares it.
+     * The Store is unpacked if it cannot hold an element of the given kind.
+     * @param elementKind - The kind of element about to be stored.
+     */
+    private void own(int elementKind) {
+        if (size == 0) {
+            if (store.owners > 1) {
+                store.owners--;
+                store = new Store(elementKind);
+            } else if (store.kind != elementKind) {
+                store = new Store(elementKind);
+            }
+            offset = 0;
+            store.used = 0;
+            version = store.logSize;
+            return;
+        }
+        int kind = store.kind == elementKind ? elementKind : GENERIC;
+        if (store.owners > 1) {
+            Store copy = new Store(kind);
+            copy.ensureCapacity(size + 1, initialCapacity);
+            if (kind == store.kind) {
+                System.arraycopy(store.array(), offset, copy.array(), 0, size);
+            } else {
+                for (int i = 0; i < size; i++) {
+                    copy.store(i, store.box(offset + i));
+                }
+            }
+            copy.used = size;
+            store.owners--;
+            store = copy;
+            offset = 0;
+            version = 0;
+        } else if (kind != store.kind) {
+            store.unpack();
+        }
+    }
+
+    private void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+}
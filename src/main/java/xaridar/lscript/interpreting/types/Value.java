@@ -63,6 +63,10 @@ public abstract class Value {
         switch (type) {
             case "int":
                 return new NumberNode(new Token(TT_INT, Integer.valueOf(0), posStart, posStart.copy().advance(null), null));
+            case "long":
+                return new NumberNode(new Token(TT_LONG, Long.valueOf(0), posStart, posStart.copy().advance(null), null));
+            case "double":
+                return new NumberNode(new Token(TT_DOUBLE, Double.valueOf(0.0), posStart, posStart.copy().advance(null).advance(null).advance(null), null));
             case "float":
             case "num":
                 return new NumberNode(new Token(TT_FLOAT, Float.valueOf(0.0f), posStart, posStart.copy().advance(null).advance(null).advance(null), null));
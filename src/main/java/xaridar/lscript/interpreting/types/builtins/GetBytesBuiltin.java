@@ -38,13 +38,7 @@ public class GetBytesBuiltin implements IExecutable {
             } else {
                 bytes = getBytes(execCtx.getSymbolTable().get("number"));
             }
-            LList retList = (LList) new LList(new ArrayList<>()).setContext(fun.getContext()).setPos(fun.getPosStart(), fun.getPosEnd());
-            for (byte aByte : bytes) {
-                Tuple<BasicType, Error> tup = retList.addedTo(new LByte(aByte));
-                if (tup.getRight() != null) return new RunTimeResult().failure(tup.getRight());
-                retList = (LList) tup.getLeft();
-            }
-            return new RunTimeResult().success(retList);
+            return new RunTimeResult().success(new LList(PackedList.of(bytes)).setContext(fun.getContext()).setPos(fun.getPosStart(), fun.getPosEnd()));
         } else if (execNum == 2) {
             LList list = (LList) execCtx.getSymbolTable().get("l");
             List<Value> bytes = new ArrayList<>();
@@ -52,13 +46,7 @@ public class GetBytesBuiltin implements IExecutable {
                 byte[] currBytes = getBytes(val);
                 if (currBytes == null)
                     return new RunTimeResult().failure(new Error.ArgumentError(val.getPosStart(), val.getPosEnd(), "Cannot get bytes of type '" + val.getType() + "'", execCtx));
-                LList l = new LList(new ArrayList<>());
-                for (byte aByte : currBytes) {
-                    Tuple<BasicType, Error> tup = l.addedTo(new LByte(aByte));
-                    if (tup.getRight() != null) return new RunTimeResult().failure(tup.getRight());
-                    l = (LList) tup.getLeft();
-                }
-                bytes.add(l);
+                bytes.add(new LList(PackedList.of(currBytes)));
             }
             return new RunTimeResult().success(new LList(bytes).setContext(fun.getContext()).setPos(fun.getPosStart(), fun.getPosEnd()));
         }
@@ -60,6 +60,7 @@ public interface IExecutable {
             new StrBuiltin(),
             new FormatBuiltin(),
             new SplitBuiltin(),
+            new MemoStatsBuiltin(),
 
             new RemoveBuiltin(),
             new AppendBuiltin(),
@@ -0,0 +1,46 @@
+package xaridar.lscript.interpreting.types.builtins;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import xaridar.lscript.Tuple;
+import xaridar.lscript.errors.Error;
+import xaridar.lscript.interpreting.Context;
+import xaridar.lscript.interpreting.RunTimeResult;
+import xaridar.lscript.interpreting.types.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Returns a map of the hits, misses, and stored results of a memoized function's cache.
+ */
+public class MemoStatsBuiltin implements IExecutable {
+    @Override
+    public List<List<Tuple<String, String>>> getArgNames() {
+        return Collections.singletonList(Collections.singletonList(Tuple.of("function", "func")));
+    }
+
+    @Override
+    public String getName() {
+        return "memostats";
+    }
+
+    @Override
+    public RunTimeResult execute(Context execCtx, int execNum, BuiltInFunction fun) {
+        Value func = execCtx.getSymbolTable().get("func");
+        if (!(func instanceof LFunction) || ((LFunction) func).getMemo() == null)
+            return new RunTimeResult().failure(new Error.RunTimeError(fun.getPosStart(), fun.getPosEnd(), "Function " + func + " is not memoized", execCtx));
+        MemoCache memo = ((LFunction) func).getMemo();
+        HashMap<Value, Value> stats = new HashMap<>();
+        stats.put(new LString("hits"), LInt.of(memo.getHits()));
+        stats.put(new LString("misses"), LInt.of(memo.getMisses()));
+        stats.put(new LString("size"), LInt.of(memo.size()));
+        return new RunTimeResult().success(new LMap(stats).setPos(fun.getPosStart(), fun.getPosEnd()).setContext(fun.getContext()));
+    }
+}
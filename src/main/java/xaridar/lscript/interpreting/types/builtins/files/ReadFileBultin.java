@@ -18,10 +18,8 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class ReadFileBultin implements IExecutable {
     @Override
@@ -46,12 +44,8 @@ public class ReadFileBultin implements IExecutable {
                 return new RunTimeResult().success(new LString(s).setPos(fun.getPosStart(), fun.getPosEnd()).setContext(fun.getContext()));
             }
             else {
-                byte[] s = Files.readAllBytes(Paths.get(f.getPath()));
-                Byte[] bytes = new Byte[s.length];
-                for (int i = 0; i < s.length; i++) {
-                    bytes[i] = Byte.valueOf(s[i]);
-                }
-                return new RunTimeResult().success(new LList(Arrays.stream(bytes).map(LByte::new).collect(Collectors.toList())));
+                byte[] bytes = Files.readAllBytes(Paths.get(f.getPath()));
+                return new RunTimeResult().success(new LList(PackedList.of(bytes)));
             }
         } catch (IOException e) {
             return new RunTimeResult().failure(new Error.FileAccessError(fun.getPosStart(), fun.getPosEnd(), "Cannot find file '" + f.getPath() + "'", execCtx));
@@ -38,9 +38,9 @@ public class NumInputBuiltin implements IExecutable {
         Scanner scanner = new Scanner(System.in);
         String s = scanner.nextLine();
         if (s.matches("^-?\\d+\\.\\d+$")) {
-            return new RunTimeResult().success(new LFloat(java.lang.Float.parseFloat(s)).setPos(fun.getPosStart(), fun.getPosEnd()).setContext(fun.getContext()));
+            return new RunTimeResult().success(new LFloat(java.lang.Float.parseFloat(s)));
         } else if (s.matches("^-?\\d+$")) {
-            return new RunTimeResult().success(new LInt(Integer.parseInt(s)).setPos(fun.getPosStart(), fun.getPosEnd()).setContext(fun.getContext()));
+            return new RunTimeResult().success(LInt.of(Integer.parseInt(s)));
         }
         return new RunTimeResult().success(NullType.Null);
     }
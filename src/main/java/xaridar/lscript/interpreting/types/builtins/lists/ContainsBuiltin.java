@@ -46,6 +46,6 @@ public class ContainsBuiltin implements IExecutable {
                 contains = m.getValue().keySet().stream().anyMatch(val -> val.equalTo(element).isTrue());
                 break;
         }
-        return new RunTimeResult().success(new LBoolean(contains).setPos(fun.getPosStart(), fun.getPosEnd()).setContext(fun.getContext()));
+        return new RunTimeResult().success(LBoolean.of(contains));
     }
 }
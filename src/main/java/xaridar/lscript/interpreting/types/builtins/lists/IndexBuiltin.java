@@ -57,9 +57,7 @@ public class IndexBuiltin implements IExecutable {
             index = s.indexOf(((LString) val).getValue());
         } else if (execNum == 1) {
             List<Value> l = ((LList) toIndex).getValue();
-            Optional<Value> v = l.stream().filter(value -> val.equalTo(value).isTrue()).findFirst();
-            if (v.isPresent())
-                index = l.indexOf(v.get());
+            index = indexOf(l, val, 0);
         } else if (execNum == 2) {
             Map<Value, Value> m = ((LMap) toIndex).getValue();
             Optional<Value> v = m.values().stream().filter(value -> val.equalTo(value).isTrue()).findFirst();
@@ -74,12 +72,24 @@ public class IndexBuiltin implements IExecutable {
         } else if (execNum == 4) {
             List<Value> l = ((LList) toIndex).getValue();
             if (startIndex.getValue() - 1 >= l.size()) return res.failure(new Error.IndexOutOfBoundsError(startIndex.getPosStart(), startIndex.getPosEnd(), "Index " + startIndex.getValue() + " too large for list of len " + l.size(), fun.getContext()));
-            Optional<Value> v = l.subList(startIndex.getValue(), l.size()).stream().filter(value -> val.equalTo(value).isTrue()).findFirst();
-            if (v.isPresent())
-                index = l.indexOf(v.get());
+            index = indexOf(l, val, startIndex.getValue());
         } else {
             return null;
         }
-        return res.success(new LInt(index).setPos(fun.getPosStart(), fun.getPosEnd()).setContext(fun.getContext()));
+        return res.success(LInt.of(index));
+    }
+
+    /**
+     * Finds an element by equality rather than identity, since equal ints and bools may be the same shared Value.
+     * @param l - The list to search.
+     * @param val - The Value to search for.
+     * @param start - The index to start searching from.
+     * @return the index of the first matching element at or after start, or -1 if there is none.
+     */
+    private static int indexOf(List<Value> l, Value val, int start) {
+        for (int i = start; i < l.size(); i++) {
+            if (val.equalTo(l.get(i)).isTrue()) return i;
+        }
+        return -1;
     }
 }
@@ -15,8 +15,6 @@ import xaridar.lscript.interpreting.types.builtins.IExecutable;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Stream;
 
 public class LastIndexBuiltin implements IExecutable {
     @Override
@@ -43,13 +41,15 @@ public class LastIndexBuiltin implements IExecutable {
             index = s.lastIndexOf(((LString) val).getValue());
         } else if (execNum == 1) {
             List<Value> l = ((LList) toIndex).getValue();
-            Stream<Value> stream = l.stream().filter(value -> val.equalTo(value).isTrue());
-            Optional<Value> v = stream.skip(stream.count() - 1).findFirst();
-            if (v.isPresent())
-                index = l.indexOf(v.get());
+            for (int i = l.size() - 1; i >= 0; i--) {
+                if (val.equalTo(l.get(i)).isTrue()) {
+                    index = i;
+                    break;
+                }
+            }
         } else {
             return null;
         }
-        return res.success(new LInt(index).setPos(fun.getPosStart(), fun.getPosEnd()).setContext(fun.getContext()));
+        return res.success(LInt.of(index));
     }
 }
@@ -33,7 +33,7 @@ public class LenBuiltin implements IExecutable {
         int len = 0;
         switch (execNum) {
             case 0:
-                len = ((LString) execCtx.getSymbolTable().get("string")).getValue().length();
+                len = ((LString) execCtx.getSymbolTable().get("string")).length();
                 break;
             case 1:
                 len = ((LList) execCtx.getSymbolTable().get("collection")).getElements().size();
@@ -42,6 +42,6 @@ public class LenBuiltin implements IExecutable {
                 len = ((LMap) execCtx.getSymbolTable().get("collection")).getMap().size();
                 break;
         }
-        return new RunTimeResult().success(new LInt(len).setPos(fun.getPosStart(), fun.getPosEnd()).setContext(fun.getContext()));
+        return new RunTimeResult().success(LInt.of(len));
     }
 }
@@ -34,7 +34,7 @@ public class RemoveBuiltin implements IExecutable {
         if (execNum == 0) {
             LList list = (LList) execCtx.getSymbolTable().get("container");
             Optional<Value> v = list.getElements().stream().filter(val -> val.equalTo(execCtx.getSymbolTable().get("value")).isTrue()).findFirst();
-            ret = new LBoolean(v.isPresent());
+            ret = LBoolean.of(v.isPresent());
             v.ifPresent(value -> list.getElements().remove(value));
         } else if (execNum == 1) {
             LMap map = (LMap) execCtx.getSymbolTable().get("container");
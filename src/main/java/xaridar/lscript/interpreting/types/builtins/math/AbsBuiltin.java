@@ -33,9 +33,9 @@ public class AbsBuiltin implements IExecutable {
     @Override
     public RunTimeResult execute(Context execCtx, int execNum, BuiltInFunction fun) {
         if (execNum == 0) {
-            return new RunTimeResult().success(new LInt(Math.abs(((LInt) execCtx.getSymbolTable().get("val")).getValue())).setPos(fun.getPosStart(), fun.getPosEnd()).setContext(fun.getContext()));
+            return new RunTimeResult().success(LInt.of(Math.abs(((LInt) execCtx.getSymbolTable().get("val")).getValue())));
         } else if (execNum == 1) {
-            return new RunTimeResult().success(new LFloat(Math.abs(((LFloat) execCtx.getSymbolTable().get("val")).getValue())).setPos(fun.getPosStart(), fun.getPosEnd()).setContext(fun.getContext()));
+            return new RunTimeResult().success(new LFloat(Math.abs(((LFloat) execCtx.getSymbolTable().get("val")).getValue())));
         }
         return null;
     }
@@ -31,6 +31,6 @@ public class CeilBuiltin implements IExecutable {
 
     @Override
     public RunTimeResult execute(Context execCtx, int execNum, BuiltInFunction fun) {
-        return new RunTimeResult().success(new LInt((int) Math.ceil(((LNumber) execCtx.getSymbolTable().get("val")).getValue().doubleValue())).setPos(fun.getPosStart(), fun.getPosEnd()).setContext(fun.getContext()));
+        return new RunTimeResult().success(LInt.of((int) Math.ceil(((LNumber) execCtx.getSymbolTable().get("val")).getValue().doubleValue())));
     }
 }
@@ -34,7 +34,7 @@ public class MaxBuiltin implements IExecutable {
     public RunTimeResult execute(Context execCtx, int execNum, BuiltInFunction fun) {
         LNumber value;
         if (execNum == 0) {
-            value = new LInt(Math.max(((LInt) execCtx.getSymbolTable().get("val1")).getValue(), ((LInt) execCtx.getSymbolTable().get("val2")).getValue()));
+            value = LInt.of(Math.max(((LInt) execCtx.getSymbolTable().get("val1")).getValue(), ((LInt) execCtx.getSymbolTable().get("val2")).getValue()));
         } else {
             value = new LFloat(Math.max(((LNumber) execCtx.getSymbolTable().get("val1")).getValue().floatValue(), ((LNumber) execCtx.getSymbolTable().get("val2")).getValue().floatValue()));
         }
@@ -32,6 +32,6 @@ public class RootBuiltin implements IExecutable {
 
     @Override
     public RunTimeResult execute(Context execCtx, int execNum, BuiltInFunction fun) {
-        return new RunTimeResult().success(new LFloat((float) Math.pow(((LNumber) execCtx.getSymbolTable().get("val")).getValue().doubleValue(), 1 / ((LNumber) execCtx.getSymbolTable().get("power")).getValue().doubleValue())).setPos(fun.getPosStart(), fun.getPosEnd()).setContext(fun.getContext()));
+        return new RunTimeResult().success(new LFloat((float) Math.pow(((LNumber) execCtx.getSymbolTable().get("val")).getValue().doubleValue(), 1 / ((LNumber) execCtx.getSymbolTable().get("power")).getValue().doubleValue())));
     }
 }
@@ -32,6 +32,6 @@ public class RandBuiltin implements IExecutable {
 
     @Override
     public RunTimeResult execute(Context execCtx, int execNum, BuiltInFunction fun) {
-        return new RunTimeResult().success(new LFloat(random.nextFloat()).setContext(fun.getContext()).setPos(fun.getPosStart(), fun.getPosEnd()));
+        return new RunTimeResult().success(new LFloat(random.nextFloat()));
     }
 }
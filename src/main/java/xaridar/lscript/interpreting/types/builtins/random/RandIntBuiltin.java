@@ -36,20 +36,20 @@ public class RandIntBuiltin implements IExecutable {
         RunTimeResult res = new RunTimeResult();
         switch (execNum) {
             case 0:
-                return res.success(new LInt(new Random().nextInt()).setContext(fun.getContext()).setPos(fun.getPosStart(), fun.getPosEnd()));
+                return res.success(LInt.of(new Random().nextInt()));
             case 1:
                 LInt bound = (LInt) execCtx.getSymbolTable().get("bound");
                 if (bound.getValue() < 0) {
                     return res.failure(new Error.ArgumentError(bound.getPosStart(), bound.getPosEnd(), "Invalid argument: Bound must be greater than 0.", execCtx));
                 }
-                return res.success(new LInt(new Random().nextInt(bound.getValue())).setContext(fun.getContext()).setPos(fun.getPosStart(), fun.getPosEnd()));
+                return res.success(LInt.of(new Random().nextInt(bound.getValue())));
             case 2:
                 LInt upperBound = (LInt) execCtx.getSymbolTable().get("upperBound");
                 LInt lowerBound = (LInt) execCtx.getSymbolTable().get("lowerBound");
                 if (upperBound.getValue() < lowerBound.getValue()) {
                     return res.failure(new Error.RunTimeError(lowerBound.getPosStart(), upperBound.getPosEnd(), "Invalid argument: Upper bound must be greater than lower bound.", execCtx));
                 }
-                return res.success(new LInt(new Random().nextInt(upperBound.getValue() - lowerBound.getValue() + 1) + lowerBound.getValue()).setContext(fun.getContext()).setPos(fun.getPosStart(), fun.getPosEnd()));
+                return res.success(LInt.of(new Random().nextInt(upperBound.getValue() - lowerBound.getValue() + 1) + lowerBound.getValue()));
             default:
                 return null;
         }
@@ -242,8 +242,9 @@ public class Lexer {
     }
 
     /**
-     * Lexes a number Token of either type Int or Float.
-     * @return a new Token, with type Int or Float. May also return an Error in the case of a failed hexadecimal lex.
+     * Lexes a number Token of type Int, Long, Float, or Double.
+     * Integers ending in 'L', or too large to be an int, are Longs; numbers ending in 'd' are Doubles.
+     * @return a new Token, with type Int, Long, Float, or Double. May also return an Error in the case of a failed hexadecimal lex.
      */
     public Tuple<Token, Error> makeNumber() {
         StringBuilder numStr = new StringBuilder();
@@ -270,13 +271,23 @@ public class Lexer {
             }
         }
 
-        if (Float.parseFloat(numStr.toString()) > 2147483647) {
-            return Tuple.of(null, new Error.InvalidSyntaxError(posStart, pos, "Integer overflow."));
+        if (currentChar != null && (currentChar == 'd' || currentChar == 'D')) {
+            advance();
+            return Tuple.of(new Token(TT_DOUBLE, Double.valueOf(numStr.toString()), posStart, pos.copy(), null), null);
         }
-        if (periodCount == 0)
-            return Tuple.of(new Token(TT_INT, Integer.valueOf(numStr.toString()), posStart, pos.copy(), null), null);
-        else
+        if (periodCount != 0)
             return Tuple.of(new Token(TT_FLOAT, Float.valueOf(numStr.toString()), posStart, pos.copy(), null), null);
+        boolean isLong = currentChar != null && (currentChar == 'L' || currentChar == 'l');
+        if (isLong) advance();
+        long value;
+        try {
+            value = Long.parseLong(numStr.toString());
+        } catch (NumberFormatException e) {
+            return Tuple.of(null, new Error.InvalidSyntaxError(posStart, pos, "Integer overflow."));
+        }
+        if (isLong || value > Integer.MAX_VALUE)
+            return Tuple.of(new Token(TT_LONG, value, posStart, pos.copy(), null), null);
+        return Tuple.of(new Token(TT_INT, (int) value, posStart, pos.copy(), null), null);
     }
 
     /**
@@ -0,0 +1,353 @@
+package xaridar.lscript.parsing;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import xaridar.lscript.Tuple;
+import xaridar.lscript.errors.Error;
+import xaridar.lscript.interpreting.types.*;
+import xaridar.lscript.lexing.Token;
+import xaridar.lscript.parsing.nodes.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static xaridar.lscript.TokenEnum.*;
+
+/**
+ * A pass run after parsing, which folds operations on literal values into single literals and removes the branches of conditionals that can never run.
+ * Folded literals keep the Positions of the expressions they replace, and operations which would fail are left to fail when they are interpreted.
+ * The pass can be disabled with the 'lscript.fold' system property.
+ */
+public class Optimizer {
+    public static boolean enabled = Boolean.parseBoolean(System.getProperty("lscript.fold", "true"));
+
+    /**
+     * Folded strings longer than this are left to be built when they are interpreted.
+     */
+    private static final int MAX_STRING_LENGTH = 4096;
+    private static final List<String> CONSTANTS = Arrays.asList("true", "false");
+
+    private final Map<Class<? extends Node>, Function<Node, Node>> optimizers;
+    private boolean foldBooleans;
+    private boolean constantsRedefined;
+
+    public Optimizer() {
+        optimizers = new HashMap<>();
+        addOptimizer(BinaryOperationNode.class, this::optimizeBinaryOperationNode);
+        addOptimizer(UnaryOperationNode.class, this::optimizeUnaryOperationNode);
+        addOptimizer(ConditionalNode.class, this::optimizeConditionalNode);
+        addOptimizer(MultilineNode.class, node -> {
+            List<Node> nodes = optimizeAll(node.getNodes());
+            return nodes == node.getNodes() ? node : new MultilineNode(nodes, node.getPosStart(), node.getPosEnd());
+        });
+        addOptimizer(ListNode.class, node -> {
+            List<Node> nodes = optimizeAll(node.getNodes());
+            return nodes == node.getNodes() ? node : new ListNode(nodes, node.getPosStart(), node.getPosEnd());
+        });
+        addOptimizer(ValueListNode.class, node -> {
+            List<Node> nodes = optimizeAll(node.getNodes());
+            return nodes == node.getNodes() ? node : new ValueListNode(nodes);
+        });
+        addOptimizer(MapNode.class, node -> {
+            List<Tuple<Node, Node>> pairs = new ArrayList<>();
+            boolean changed = false;
+            for (Tuple<Node, Node> pair : node.getPairs()) {
+                Node key = optimize(pair.getLeft());
+                Node value = optimize(pair.getRight());
+                changed |= key != pair.getLeft() || value != pair.getRight();
+                pairs.add(Tuple.of(key, value));
+            }
+            return changed ? new MapNode(pairs, node.getPosStart(), node.getPosEnd()) : node;
+        });
+        addOptimizer(VarAccessNode.class, node -> node);
+        addOptimizer(VarAssignNode.class, node -> {
+            redefines((String) node.getToken().getValue());
+            Node value = optimize(node.getValueNode());
+            if (value == node.getValueNode()) return node;
+            return new VarAssignNode(node.getType(), node.getToken(), node.getNestedContexts(), value, node.getMods());
+        });
+        addOptimizer(VarListAssignNode.class, node -> {
+            node.getVars().forEach(var -> redefines((String) var.getRight().getValue()));
+            Node value = optimize(node.getValueNode());
+            return value == node.getValueNode() ? node : new VarListAssignNode(node.getVars(), value, node.isAllSameType());
+        });
+        addOptimizer(ForNode.class, node -> {
+            redefines((String) node.getVarNameToken().getValue());
+            Node start = optimize(node.getStartValueNode());
+            Node end = optimize(node.getEndValueNode());
+            Node step = optimize(node.getStepNode());
+            Node body = optimize(node.getBodyNode());
+            if (start == node.getStartValueNode() && end == node.getEndValueNode() && step == node.getStepNode() && body == node.getBodyNode())
+                return node;
+            return new ForNode(node.getVarTypeToken(), node.getVarNameToken(), start, end, step, body);
+        });
+        addOptimizer(WhileNode.class, node -> {
+            Node condition = optimize(node.getConditionNode());
+            Node body = optimize(node.getBodyNode());
+            return condition == node.getConditionNode() && body == node.getBodyNode() ? node : new WhileNode(condition, body);
+        });
+        addOptimizer(FuncDefNode.class, this::optimizeFuncDefNode);
+        addOptimizer(CallNode.class, node -> {
+            List<Node> args = optimizeAll(node.getArgNodes());
+            return args == node.getArgNodes() ? node : new CallNode(node.getNodeToCall(), args);
+        });
+        addOptimizer(InstanceNode.class, node -> {
+            List<Node> args = optimizeAll(node.getArgNodes());
+            return args == node.getArgNodes() ? node : new InstanceNode(node.getCls(), args);
+        });
+        addOptimizer(IndexNode.class, node -> {
+            Node left = optimize(node.getLeft());
+            Node start = optimize(node.getStartIndex());
+            Node end = optimize(node.getEndIndex());
+            if (left == node.getLeft() && start == node.getStartIndex() && end == node.getEndIndex()) return node;
+            return new IndexNode(left, start, end);
+        });
+        addOptimizer(SetIndexNode.class, node -> {
+            Node left = optimize(node.getLeft());
+            Node start = optimize(node.getStartIndex());
+            Node end = optimize(node.getEndIndex());
+            Node value = optimize(node.getVal());
+            if (left == node.getLeft() && start == node.getStartIndex() && end == node.getEndIndex() && value == node.getVal())
+                return node;
+            return new SetIndexNode(left, start, end, value);
+        });
+        addOptimizer(ReturnNode.class, node -> {
+            List<Node> nodes = optimizeAll(node.getNodesToCall());
+            return nodes == node.getNodesToCall() ? node : new ReturnNode(nodes, node.getPosStart(), node.getPosEnd());
+        });
+        addOptimizer(ImportNode.class, node -> {
+            node.getNames().forEach(this::redefines);
+            return node;
+        });
+        addOptimizer(FileImportNode.class, node -> {
+            redefines(node.getName());
+            return node;
+        });
+        addOptimizer(ClassNode.class, this::optimizeClassNode);
+    }
+
+    /**
+     * Registers the optimize method for a type of Node.
+     * @param nodeClass - The class of Node handled by the optimize method.
+     * @param optimizer - The method returning an optimized copy of Nodes of the given class, or the same Node if nothing changed.
+     * @param <T> - The type of Node handled by the optimize method.
+     */
+    private <T extends Node> void addOptimizer(Class<T> nodeClass, Function<T, Node> optimizer) {
+        optimizers.put(nodeClass, node -> optimizer.apply(nodeClass.cast(node)));
+    }
+
+    /**
+     * Optimizes a parsed script, if the pass is enabled.
+     * 'true' and 'false' are folded as constants, unless the script declares or assigns a variable with either name.
+     * @param node - The root Node of the script.
+     * @return the root Node of the optimized script.
+     */
+    public Node optimizeScript(Node node) {
+        if (!enabled) return node;
+        foldBooleans = true;
+        constantsRedefined = false;
+        Node optimized = optimize(node);
+        if (!constantsRedefined) return optimized;
+        foldBooleans = false;
+        return optimize(node);
+    }
+
+    private Node optimize(Node node) {
+        if (node == null) return null;
+        Function<Node, Node> optimizer = optimizers.get(node.getClass());
+        return optimizer != null ? optimizer.apply(node) : node;
+    }
+
+    /**
+     * Optimizes a list of Nodes.
+     * @param nodes - The Nodes to optimize.
+     * @return a new list of the optimized Nodes, or the same list if none of them changed.
+     */
+    private List<Node> optimizeAll(List<Node> nodes) {
+        List<Node> optimized = new ArrayList<>(nodes.size());
+        boolean changed = false;
+        for (Node node : nodes) {
+            Node n = optimize(node);
+            changed |= n != node;
+            optimized.add(n);
+        }
+        return changed ? optimized : nodes;
+    }
+
+    private void redefines(String name) {
+        if (CONSTANTS.contains(name)) constantsRedefined = true;
+    }
+
+    private Node optimizeBinaryOperationNode(BinaryOperationNode node) {
+        Node start = optimize(node.getStartNode());
+        Node end = optimize(node.getEndNode());
+        Value left = constantOf(start);
+        Value right = constantOf(end);
+        if (left instanceof BasicType && right instanceof BasicType && canFold(node.getOperationToken(), left, right)) {
+            Tuple<BasicType, Error> result = left.apply(node.getOperationToken(), right);
+            if (result != null && result.getRight() == null) {
+                Node literal = literalOf(result.getLeft(), node);
+                if (literal != null) return literal;
+            }
+        }
+        if (start == node.getStartNode() && end == node.getEndNode()) return node;
+        return new BinaryOperationNode(start, node.getOperationToken(), end);
+    }
+
+    /**
+     * Checks that an operation between two constants cannot throw or build an overly long string when it is folded.
+     */
+    private boolean canFold(Token opToken, Value left, Value right) {
+        if ((opToken.getType() == TT_MOD || opToken.getType() == TT_DIV) && right instanceof LNumber)
+            return ((LNumber) right).doubleValue() != 0;
+        if (opToken.getType() == TT_MUL && left instanceof LString)
+            return right instanceof LInt && ((LInt) right).intValue() >= 0
+                    && (long) ((LString) left).length() * ((LInt) right).intValue() <= MAX_STRING_LENGTH;
+        return true;
+    }
+
+    private Node optimizeUnaryOperationNode(UnaryOperationNode node) {
+        Node operand = optimize(node.getNode());
+        Value value = constantOf(operand);
+        Value result = null;
+        if (node.getOperationToken().getType() == TT_MINUS && value instanceof LNumber)
+            result = LNumber.operate(TT_MUL, value, LInt.of(-1));
+        else if (node.getOperationToken().getType() == TT_BANG && value != null)
+            result = LBoolean.of(!value.isTrue());
+        if (result != null) {
+            Node literal = literalOf(result, node);
+            if (literal != null) return literal;
+        }
+        return operand == node.getNode() ? node : new UnaryOperationNode(node.getOperationToken(), operand);
+    }
+
+    /**
+     * Removes every case of a conditional whose condition is a constant false value, and every case after one whose condition is a constant true value.
+     * A case which is always taken becomes the else case of the cases before it; a conditional is always left with at least one case, so that it still evaluates to the same Value.
+     */
+    private Node optimizeConditionalNode(ConditionalNode node) {
+        List<Tuple<Tuple<Node, Node>, Boolean>> cases = new ArrayList<>();
+        Tuple<Tuple<Node, Node>, Boolean> lastSkipped = null;
+        Tuple<Node, Boolean> elseCase = node.getElseCase() == null ? null : Tuple.of(optimize(node.getElseCase().getLeft()), node.getElseCase().getRight());
+        boolean changed = elseCase != null && elseCase.getLeft() != node.getElseCase().getLeft();
+        for (Tuple<Tuple<Node, Node>, Boolean> aCase : node.getCases()) {
+            Node condition = optimize(aCase.getLeft().getLeft());
+            Node body = optimize(aCase.getLeft().getRight());
+            Tuple<Tuple<Node, Node>, Boolean> optimized = Tuple.of(Tuple.of(condition, body), aCase.getRight());
+            changed |= condition != aCase.getLeft().getLeft() || body != aCase.getLeft().getRight();
+            Value constant = constantOf(condition);
+            if (constant == null) {
+                cases.add(optimized);
+            } else if (!constant.isTrue()) {
+                lastSkipped = optimized;
+                changed = true;
+            } else if (cases.isEmpty()) {
+                cases.add(optimized);
+                elseCase = null;
+                changed = true;
+                break;
+            } else {
+                elseCase = Tuple.of(body, aCase.getRight());
+                changed = true;
+                break;
+            }
+        }
+        if (!changed) return node;
+        if (cases.isEmpty()) cases.add(lastSkipped);
+        return new ConditionalNode(cases, elseCase, !node.requiresSemicolon());
+    }
+
+    private Node optimizeFuncDefNode(FuncDefNode node) {
+        if (node.getVarNameToken() != null) redefines((String) node.getVarNameToken().getValue());
+        node.getArgTokens().forEach(arg -> redefines((String) arg.getRight().getValue()));
+        MultilineNode body = (MultilineNode) optimize(node.getBodyNode());
+        if (body == node.getBodyNode()) return node;
+        return new FuncDefNode(node.getVarNameToken(), node.getArgTokens(), node.getReturnTypes(), body, node.getMods());
+    }
+
+    private Node optimizeClassNode(ClassNode node) {
+        redefines((String) node.getVarName().getValue());
+        boolean changed = false;
+        List<VarNode> fields = new ArrayList<>();
+        for (VarNode field : node.getFields()) {
+            VarNode optimized = (VarNode) optimize(field);
+            changed |= optimized != field;
+            fields.add(optimized);
+        }
+        List<FuncDefNode> methods = new ArrayList<>();
+        for (FuncDefNode method : node.getMethods()) {
+            FuncDefNode optimized = (FuncDefNode) optimize(method);
+            changed |= optimized != method;
+            methods.add(optimized);
+        }
+        FuncDefNode constructor = (FuncDefNode) optimize(node.getConstructor());
+        changed |= constructor != node.getConstructor();
+        if (!changed) return node;
+        return new ClassNode(node.getVarName(), fields, methods, constructor, node.getPosStart(), node.getPosEnd(), node.getMods(), node.getExtendNode());
+    }
+
+    /**
+     * Finds the Value of a literal Node.
+     * @param node - The Node to check.
+     * @return the Value of the Node, or null if it is not a literal which can be folded.
+     */
+    private Value constantOf(Node node) {
+        if (node instanceof NumberNode) {
+            Token token = ((NumberNode) node).getToken();
+            switch (token.getType()) {
+                case TT_INT:
+                    return LInt.of((int) token.getValue());
+                case TT_FLOAT:
+                    return new LFloat((float) token.getValue());
+                case TT_LONG:
+                    return LLong.of((long) token.getValue());
+                case TT_DOUBLE:
+                    return new LDouble((double) token.getValue());
+                default:
+                    return null;
+            }
+        }
+        if (node instanceof StringNode) {
+            // Strings containing '%' are interpolated when they are interpreted.
+            String value = (String) ((StringNode) node).getToken().getValue();
+            return value.contains("%") ? null : new LString(value);
+        }
+        if (foldBooleans && node instanceof VarAccessNode && ((VarAccessNode) node).getContext().isEmpty()) {
+            Object name = ((VarAccessNode) node).getToken().getValue();
+            if (name.equals("true")) return LBoolean.True;
+            if (name.equals("false")) return LBoolean.False;
+        }
+        return null;
+    }
+
+    /**
+     * Creates a literal Node for a folded Value, in place of the Node it was folded from.
+     * @param value - The folded Value.
+     * @param node - The Node being replaced, whose Positions are kept.
+     * @return a literal Node, or null if the Value cannot be written as one.
+     */
+    private Node literalOf(Value value, Node node) {
+        if (value instanceof LInt)
+            return new NumberNode(new Token(TT_INT, ((LInt) value).intValue(), node.getPosStart(), node.getPosEnd(), null));
+        if (value instanceof LFloat)
+            return new NumberNode(new Token(TT_FLOAT, ((LFloat) value).floatValue(), node.getPosStart(), node.getPosEnd(), null));
+        if (value instanceof LLong)
+            return new NumberNode(new Token(TT_LONG, ((LLong) value).longValue(), node.getPosStart(), node.getPosEnd(), null));
+        if (value instanceof LDouble)
+            return new NumberNode(new Token(TT_DOUBLE, ((LDouble) value).doubleValue(), node.getPosStart(), node.getPosEnd(), null));
+        if (value instanceof LString && !((LString) value).getValue().contains("%"))
+            return new StringNode(new Token(TT_STR, ((LString) value).getValue(), node.getPosStart(), node.getPosEnd(), null));
+        if (value instanceof LBoolean && foldBooleans)
+            return new VarAccessNode(new Token(TT_IDENTIFIER, value.toString(), node.getPosStart(), node.getPosEnd(), null));
+        return null;
+    }
+}
@@ -103,7 +103,7 @@ public class Parser {
     public ParseResult atom() {
         ParseResult res = new ParseResult();
         Token tok = currentToken;
-        if (Arrays.asList(TT_INT, TT_FLOAT).contains(tok.getType())) {
+        if (Arrays.asList(TT_INT, TT_FLOAT, TT_LONG, TT_DOUBLE).contains(tok.getType())) {
             res.registerAdvancement();
             advance();
             return res.success(new NumberNode(tok));
@@ -436,8 +436,16 @@ public class Parser {
      * @return a ParseResult holding either a Node or Error - the Node is of type FuncDefNode
      */
     private ParseResult funcDef() {
+        return funcDef(new ModifierList());
+    }
+
+    /**
+     * Parses a function definition, after any of its modifiers have already been read.
+     * @param mods - The modifiers read before the function definition.
+     * @return a ParseResult holding either a Node or Error - the Node is of type FuncDefNode
+     */
+    private ParseResult funcDef(ModifierList mods) {
         ParseResult res = new ParseResult();
-        ModifierList mods = new ModifierList();
         if (!currentToken.getType().equals(TT_KW)) {
             return res.failure(new Error.InvalidSyntaxError(currentToken.getPosStart(), currentToken.getPosEnd(), "Expected keyword (variable modifier or 'func')"));
         }
@@ -1109,7 +1117,14 @@ public class Parser {
                 modNum++;
             }
         }
+        if (modNum > 0 && currentToken.matches(TT_KW, "func")) {
+            Node funcDef = res.register(funcDef(mods));
+            if (res.hasError()) return res;
+            return res.success(funcDef);
+        }
         mods.setToDefaults();
+        if (mods.isMemo())
+            return res.failure(new Error.InvalidSyntaxError(currentToken.getPosStart(), currentToken.getPosEnd(), "Only functions can be memoized"));
         if (currentToken.getType().equals(TT_IDENTIFIER)) {
             List<Token> s = new ArrayList<>();
             Token type = null;
@@ -1188,6 +1203,9 @@ public class Parser {
                         if (node instanceof VarNode) {
                             varAssignNodes.add((VarNode) node);
                         } else if (node instanceof FuncDefNode) {
+                            // A method's result also depends on the fields of the instance it is called on, so only static methods can be cached by their args.
+                            if (((FuncDefNode) node).getMods().isMemo() && !((FuncDefNode) node).getMods().isStat())
+                                return res.failure(new Error.InvalidSyntaxError(node.getPosStart(), node.getPosEnd(), "Only functions and static methods can be memoized"));
                             if (constructor == null && ((FuncDefNode) node).getReturnTypes().size() == 0 && ((FuncDefNode) node).getVarNameToken().matches(TT_IDENTIFIER, "constructor")) {
                                 constructor = (FuncDefNode) node;
                             } else {
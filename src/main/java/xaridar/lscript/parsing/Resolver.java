@@ -0,0 +1,342 @@
+package xaridar.lscript.parsing;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import xaridar.lscript.Tuple;
+import xaridar.lscript.lexing.Token;
+import xaridar.lscript.parsing.nodes.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A pass run after parsing, which resolves variables declared inside a script or function body to slots in their SymbolTable.
+ * Variables that cannot be resolved ahead of time, such as those declared outside of the current function, by imports, or by 'eval', are left to be looked up by name.
+ */
+public class Resolver {
+    private static final int DYNAMIC = -1;
+
+    private final Map<Class<? extends Node>, Consumer<Node>> resolvers;
+    private Scope scope;
+    private boolean resolving;
+    private Set<String> referenced = new HashSet<>();
+    private boolean referencesAll;
+    private String function;
+    private List<ReturnNode> tailCalls;
+    private boolean reusableFrame;
+
+    public Resolver() {
+        resolvers = new HashMap<>();
+        addResolver(ListNode.class, node -> resolveAll(node.getNodes()));
+        addResolver(MultilineNode.class, node -> resolveAll(node.getNodes()));
+        addResolver(ValueListNode.class, node -> resolveAll(node.getNodes()));
+        addResolver(MapNode.class, node -> node.getPairs().forEach(pair -> {
+            resolve(pair.getLeft());
+            resolve(pair.getRight());
+        }));
+        addResolver(BinaryOperationNode.class, node -> {
+            resolve(node.getStartNode());
+            resolve(node.getEndNode());
+        });
+        addResolver(UnaryOperationNode.class, node -> resolve(node.getNode()));
+        addResolver(VarAccessNode.class, this::resolveVarAccessNode);
+        addResolver(VarAssignNode.class, this::resolveVarAssignNode);
+        addResolver(VarListAssignNode.class, node -> {
+            resolve(node.getValueNode());
+            reusableFrame = false;
+            node.getVars().forEach(var -> {
+                referenced.add((String) var.getRight().getValue());
+                declareDynamic((String) var.getRight().getValue());
+            });
+        });
+        addResolver(StringNode.class, node -> {
+            // Interpolated strings look up the variables they name at runtime.
+            referenced.addAll(Arrays.asList(node.getInterpolatedNames()));
+        });
+        addResolver(ConditionalNode.class, node -> {
+            for (Tuple<Tuple<Node, Node>, Boolean> aCase : node.getCases()) {
+                resolve(aCase.getLeft().getLeft());
+                resolve(aCase.getLeft().getRight());
+            }
+            if (node.getElseCase() != null) resolve(node.getElseCase().getLeft());
+        });
+        addResolver(ForNode.class, this::resolveForNode);
+        addResolver(WhileNode.class, node -> {
+            scope = new Scope(scope);
+            resolve(node.getConditionNode());
+            resolve(node.getBodyNode());
+            scope = scope.parent;
+        });
+        addResolver(FuncDefNode.class, this::resolveFuncDefNode);
+        addResolver(CallNode.class, node -> {
+            // Functions run in a Context below their caller's, so the function called may read any of its variables.
+            referencesAll = true;
+            resolve(node.getNodeToCall());
+            resolveAll(node.getArgNodes());
+        });
+        addResolver(IndexNode.class, node -> {
+            resolve(node.getLeft());
+            resolve(node.getStartIndex());
+            resolve(node.getEndIndex());
+        });
+        addResolver(SetIndexNode.class, node -> {
+            resolve(node.getLeft());
+            resolve(node.getStartIndex());
+            resolve(node.getEndIndex());
+            resolve(node.getVal());
+        });
+        addResolver(ReturnNode.class, this::resolveReturnNode);
+        addResolver(ImportNode.class, node -> {
+            referencesAll = true;
+            reusableFrame = false;
+            node.getNames().forEach(this::declareDynamic);
+        });
+        addResolver(FileImportNode.class, node -> {
+            referencesAll = true;
+            reusableFrame = false;
+            declareDynamic(node.getName());
+        });
+        addResolver(ClassNode.class, this::resolveClassNode);
+        addResolver(InstanceNode.class, node -> {
+            // Arguments are evaluated in the caller's Context, but the new instance's fields and constructor run below it, where they may read any of its variables by name.
+            referencesAll = true;
+            reusableFrame = false;
+            resolveAll(node.getArgNodes());
+        });
+    }
+
+    /**
+     * Registers the resolve method for a type of Node.
+     * @param nodeClass - The class of Node handled by the resolve method.
+     * @param resolver - The method resolving Nodes of the given class.
+     * @param <T> - The type of Node handled by the resolve method.
+     */
+    private <T extends Node> void addResolver(Class<T> nodeClass, Consumer<T> resolver) {
+        resolvers.put(nodeClass, node -> resolver.accept(nodeClass.cast(node)));
+    }
+
+    /**
+     * Resolves all variables in a parsed script.
+     * @param node - The root Node of the script.
+     */
+    public void resolveScript(Node node) {
+        resolveBody(node, null);
+    }
+
+    private void resolve(Node node) {
+        if (node == null) return;
+        Consumer<Node> resolver = resolvers.get(node.getClass());
+        if (resolver != null) resolver.accept(node);
+    }
+
+    private void resolveAll(List<? extends Node> nodes) {
+        for (Node node : nodes) {
+            resolve(node);
+        }
+    }
+
+    /**
+     * Resolves a script or function body, which gets a new SymbolTable with no statically known parents.
+     * @param body - The body to resolve.
+     * @param args - The argument Tokens of a function, which fill the first slots; or null for a script.
+     */
+    private void resolveBody(Node body, List<Tuple<Token, Token>> args) {
+        Scope outerScope = scope;
+        boolean wasResolving = resolving;
+        scope = new Scope(null);
+        resolving = !isDynamic(body);
+        if (args != null) {
+            for (Tuple<Token, Token> arg : args) {
+                declare((String) arg.getRight().getValue());
+            }
+        }
+        resolve(body);
+        scope = outerScope;
+        resolving = wasResolving;
+    }
+
+    private void resolveVarAccessNode(VarAccessNode node) {
+        referenced.add((String) node.getToken().getValue());
+        if (!resolving || node.getContext().size() != 0) return;
+        String name = (String) node.getToken().getValue();
+        int depth = 0;
+        for (Scope s = scope; s != null; s = s.parent, depth++) {
+            Integer slot = s.slots.get(name);
+            if (slot != null) {
+                if (slot != DYNAMIC) node.setSlot(depth, slot);
+                return;
+            }
+        }
+    }
+
+    private void resolveVarAssignNode(VarAssignNode node) {
+        resolve(node.getValueNode());
+        String name = (String) node.getToken().getValue();
+        referenced.add(name);
+        if (node.getType() != null) reusableFrame = false;
+        if (!resolving || node.getNestedContexts().size() != 0) return;
+        if (node.getType() == null) {
+            int depth = 0;
+            for (Scope s = scope; s != null; s = s.parent, depth++) {
+                Integer slot = s.slots.get(name);
+                if (slot != null) {
+                    if (slot != DYNAMIC) node.setSlot(depth, slot);
+                    return;
+                }
+            }
+        } else if (node.getMods().isStat()) {
+            // Static variables are moved to the outermost SymbolTable.
+            declareDynamic(name);
+        } else {
+            int slot = declare(name);
+            if (slot != DYNAMIC) node.setSlot(0, slot);
+        }
+    }
+
+    private void resolveForNode(ForNode node) {
+        resolve(node.getStartValueNode());
+        resolve(node.getEndValueNode());
+        resolve(node.getStepNode());
+        // The instance variable lives in the enclosing SymbolTable, and is removed from it once the loop ends.
+        String name = (String) node.getVarNameToken().getValue();
+        referenced.add(name);
+        reusableFrame = false;
+        if (resolving) node.setSlot(declare(name));
+        scope = new Scope(scope);
+        Set<String> outerReferenced = referenced;
+        boolean outerReferencesAll = referencesAll;
+        referenced = new HashSet<>();
+        referencesAll = false;
+        resolve(node.getBodyNode());
+        // The body only needs the instance variable if it names it, or may read variables that are not known ahead of time.
+        node.setVarRead(referencesAll || referenced.contains(name) || referenced.contains("eval"));
+        outerReferenced.addAll(referenced);
+        referenced = outerReferenced;
+        referencesAll |= outerReferencesAll;
+        scope = scope.parent;
+        scope.slots.remove(name);
+    }
+
+    private void resolveFuncDefNode(FuncDefNode node) {
+        String name = node.getVarNameToken() != null ? (String) node.getVarNameToken().getValue() : null;
+        if (name != null)
+            declareDynamic(name);
+        String outerFunction = function;
+        List<ReturnNode> outerTailCalls = tailCalls;
+        function = name;
+        tailCalls = new ArrayList<>();
+        reusableFrame = !isDynamic(node.getBodyNode());
+        resolveBody(node.getBodyNode(), node.getArgTokens());
+        // Self-recursive tail calls can reuse the function's frame if it only ever holds the arguments, so that no variable can be looked up in the frame of an outer call instead.
+        if (reusableFrame) {
+            for (ReturnNode tailCall : tailCalls) {
+                tailCall.setTailCallOf(node.getBodyNode());
+            }
+        }
+        function = outerFunction;
+        tailCalls = outerTailCalls;
+        // A nested function runs below the frame it is called from, which must then be kept.
+        reusableFrame = false;
+    }
+
+    private void resolveReturnNode(ReturnNode node) {
+        resolveAll(node.getNodesToCall());
+        if (function == null || node.getNodesToCall().size() != 1 || !(node.getNodesToCall().get(0) instanceof CallNode)) return;
+        Node nodeToCall = ((CallNode) node.getNodesToCall().get(0)).getNodeToCall();
+        if (nodeToCall instanceof VarAccessNode && ((VarAccessNode) nodeToCall).getContext().size() == 0 && ((VarAccessNode) nodeToCall).getToken().getValue().equals(function))
+            tailCalls.add(node);
+    }
+
+    private void resolveClassNode(ClassNode node) {
+        declareDynamic((String) node.getVarName().getValue());
+        // Field values are not resolved, so they may reference any variable.
+        referencesAll = true;
+        reusableFrame = false;
+        // Fields are evaluated in the class and instance Contexts, so only method bodies are resolved.
+        if (node.getConstructor() != null) resolve(node.getConstructor());
+        for (FuncDefNode method : node.getMethods()) {
+            resolve(method);
+        }
+    }
+
+    private int declare(String name) {
+        Integer slot = scope.slots.get(name);
+        if (slot != null) return slot;
+        slot = scope.size++;
+        scope.slots.put(name, slot);
+        return slot;
+    }
+
+    private void declareDynamic(String name) {
+        if (scope != null) scope.slots.putIfAbsent(name, DYNAMIC);
+    }
+
+    /**
+     * Checks whether a body can declare variables that are unknown before it runs, through 'eval' or a wildcard import.
+     * @param node - The body to check, not including any nested function bodies.
+     * @return True if the variables in the body must be looked up by name.
+     */
+    private boolean isDynamic(Node node) {
+        if (node == null || node instanceof FuncDefNode || node instanceof ClassNode) return false;
+        if (node instanceof VarAccessNode) return ((VarAccessNode) node).getToken().getValue().equals("eval");
+        if (node instanceof ImportNode) return ((ImportNode) node).importAll();
+        if (node instanceof MultilineNode) return ((MultilineNode) node).getNodes().stream().anyMatch(this::isDynamic);
+        if (node instanceof ListNode) return ((ListNode) node).getNodes().stream().anyMatch(this::isDynamic);
+        if (node instanceof ValueListNode) return ((ValueListNode) node).getNodes().stream().anyMatch(this::isDynamic);
+        if (node instanceof ReturnNode) return ((ReturnNode) node).getNodesToCall().stream().anyMatch(this::isDynamic);
+        if (node instanceof InstanceNode) return ((InstanceNode) node).getArgNodes().stream().anyMatch(this::isDynamic);
+        if (node instanceof MapNode)
+            return ((MapNode) node).getPairs().stream().anyMatch(pair -> isDynamic(pair.getLeft()) || isDynamic(pair.getRight()));
+        if (node instanceof BinaryOperationNode)
+            return isDynamic(((BinaryOperationNode) node).getStartNode()) || isDynamic(((BinaryOperationNode) node).getEndNode());
+        if (node instanceof UnaryOperationNode) return isDynamic(((UnaryOperationNode) node).getNode());
+        if (node instanceof VarAssignNode) return isDynamic(((VarAssignNode) node).getValueNode());
+        if (node instanceof VarListAssignNode) return isDynamic(((VarListAssignNode) node).getValueNode());
+        if (node instanceof ConditionalNode) {
+            ConditionalNode conditional = (ConditionalNode) node;
+            return conditional.getCases().stream().anyMatch(aCase -> isDynamic(aCase.getLeft().getLeft()) || isDynamic(aCase.getLeft().getRight()))
+                    || (conditional.getElseCase() != null && isDynamic(conditional.getElseCase().getLeft()));
+        }
+        if (node instanceof ForNode) {
+            ForNode loop = (ForNode) node;
+            return isDynamic(loop.getStartValueNode()) || isDynamic(loop.getEndValueNode()) || isDynamic(loop.getStepNode()) || isDynamic(loop.getBodyNode());
+        }
+        if (node instanceof WhileNode)
+            return isDynamic(((WhileNode) node).getConditionNode()) || isDynamic(((WhileNode) node).getBodyNode());
+        if (node instanceof CallNode)
+            return isDynamic(((CallNode) node).getNodeToCall()) || ((CallNode) node).getArgNodes().stream().anyMatch(this::isDynamic);
+        if (node instanceof IndexNode) {
+            IndexNode index = (IndexNode) node;
+            return isDynamic(index.getLeft()) || isDynamic(index.getStartIndex()) || isDynamic(index.getEndIndex());
+        }
+        if (node instanceof SetIndexNode) {
+            SetIndexNode index = (SetIndexNode) node;
+            return isDynamic(index.getLeft()) || isDynamic(index.getStartIndex()) || isDynamic(index.getEndIndex()) || isDynamic(index.getVal());
+        }
+        return false;
+    }
+
+    /**
+     * The variables declared in a single SymbolTable, mapped to their slots.
+     */
+    private static class Scope {
+        final Map<String, Integer> slots = new HashMap<>();
+        final Scope parent;
+        int size;
+
+        Scope(Scope parent) {
+            this.parent = parent;
+        }
+    }
+}
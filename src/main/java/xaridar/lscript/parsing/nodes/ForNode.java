@@ -19,6 +19,8 @@ public class ForNode extends Node {
     private final Node endValueNode;
     private final Node stepNode;
     private final Node bodyNode;
+    private int slot = -1;
+    private boolean varRead = true;
 
     /**
      * @param varTypeToken - A Token representing the type of the instance variable of the loop.
@@ -88,4 +90,34 @@ public class ForNode extends Node {
     public boolean requiresSemicolon() {
         return false;
     }
+
+    /**
+     * Sets the slot the instance variable of the loop was resolved to by the Resolver.
+     * @param slot - The index of the instance variable in the SymbolTable's slots.
+     */
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    /**
+     * @return The index of the instance variable of the loop in the SymbolTable's slots, or -1 if it has not been resolved.
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Sets whether the body of the loop may read or assign the instance variable, as determined by the Resolver.
+     * @param varRead - False if the instance variable is never referenced by the body of the loop.
+     */
+    public void setVarRead(boolean varRead) {
+        this.varRead = varRead;
+    }
+
+    /**
+     * @return whether the body of the loop may read or assign the instance variable. If not, the variable does not need to be updated on each iteration.
+     */
+    public boolean isVarRead() {
+        return varRead;
+    }
 }
@@ -16,6 +16,7 @@ import java.util.List;
  */
 public class ReturnNode extends Node {
     private final List<Node> nodesToCall;
+    private Node tailCallOf;
 
     /**
      * @param nodesToCall - A list of Nodes called in a return statement.
@@ -40,4 +41,19 @@ public class ReturnNode extends Node {
     public void addNodeToCall(Node node) {
         nodesToCall.add(node);
     }
+
+    /**
+     * Marks this return statement as a tail call of its own function, as determined by the Resolver.
+     * @param body - The body of the function which returns the result of calling itself.
+     */
+    public void setTailCallOf(Node body) {
+        tailCallOf = body;
+    }
+
+    /**
+     * @return the body of the function this return statement calls in tail position, or null if it is not a self-recursive tail call.
+     */
+    public Node getTailCallOf() {
+        return tailCallOf;
+    }
 }
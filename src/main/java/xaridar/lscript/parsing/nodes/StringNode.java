@@ -9,11 +9,17 @@ package xaridar.lscript.parsing.nodes;
 
 import xaridar.lscript.lexing.Token;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * A simple Node representing a string of characters.
+ * Each '%' in the string is followed by the name of a variable to interpolate, which may be empty; the string is split around them once, when the Node is created.
  */
 public class StringNode extends Node {
     private final Token token;
+    private final String[] literals;
+    private final String[] interpolatedNames;
 
     /**
      * @param token - A Token representing the String value of the Node.
@@ -21,6 +27,24 @@ public class StringNode extends Node {
     public StringNode(Token token) {
         super(token.getPosStart(), token.getPosEnd());
         this.token = token;
+        String value = (String) token.getValue();
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int index = value.indexOf('%');
+        literals.add(index < 0 ? value : value.substring(0, index));
+        while (index >= 0) {
+            int nameEnd = index + 1;
+            while (nameEnd < value.length() && isWordChar(value.charAt(nameEnd))) nameEnd++;
+            names.add(value.substring(index + 1, nameEnd));
+            index = value.indexOf('%', nameEnd);
+            literals.add(value.substring(nameEnd, index < 0 ? value.length() : index));
+        }
+        this.literals = literals.toArray(new String[0]);
+        this.interpolatedNames = names.toArray(new String[0]);
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
     }
 
     /**
@@ -37,4 +61,18 @@ public class StringNode extends Node {
     public Token getToken() {
         return token;
     }
+
+    /**
+     * @return The text before, between, and after the interpolated variables, with one more element than getInterpolatedNames().
+     */
+    public String[] getLiterals() {
+        return literals;
+    }
+
+    /**
+     * @return The names of the variables interpolated into the string, in order; empty if it contains no '%'.
+     */
+    public String[] getInterpolatedNames() {
+        return interpolatedNames;
+    }
 }
@@ -19,6 +19,9 @@ public class VarAccessNode extends Node {
 
     private final List<Token> nestedContexts;
     private final Token token;
+    private int depth = -1;
+    private int slot = -1;
+    private int memberSlot = -1;
 
     /**
      * @param nestedContexts - A List of nested Token names representing the Context name to access the variable from (separated by '.').
@@ -50,4 +53,43 @@ public class VarAccessNode extends Node {
     public List<Token> getContext() {
         return nestedContexts;
     }
+
+    /**
+     * Sets the slot this variable was resolved to by the Resolver.
+     * @param depth - The number of SymbolTables above the current one which hold the variable.
+     * @param slot - The index of the variable in that SymbolTable's slots.
+     */
+    public void setSlot(int depth, int slot) {
+        this.depth = depth;
+        this.slot = slot;
+    }
+
+    /**
+     * @return The number of SymbolTables above the current one which hold the variable, if it has been resolved.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return The index of the variable in its SymbolTable's slots, or -1 if it has not been resolved and must be looked up by name.
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Caches the slot a member of a class instance was last found in, which is the same for every instance of the class.
+     * @param memberSlot - The index of the member in the instance's slots, or -1 if it was not found in one.
+     */
+    public void setMemberSlot(int memberSlot) {
+        this.memberSlot = memberSlot;
+    }
+
+    /**
+     * @return The index of the slot the accessed member was last found in, or -1 if it must be looked up by name.
+     */
+    public int getMemberSlot() {
+        return memberSlot;
+    }
 }
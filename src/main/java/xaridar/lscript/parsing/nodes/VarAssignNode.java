@@ -21,6 +21,8 @@ public class VarAssignNode extends VarNode {
     private final Token token;
     private final List<Token> nestedContexts;
     private final Node valueNode;
+    private int depth = -1;
+    private int slot = -1;
 
     /**
      * @param type - A Token representing the variable's type.
@@ -71,4 +73,28 @@ public class VarAssignNode extends VarNode {
     public List<Token> getNestedContexts() {
         return nestedContexts;
     }
+
+    /**
+     * Sets the slot this variable was resolved to by the Resolver.
+     * @param depth - The number of SymbolTables above the current one which hold the variable.
+     * @param slot - The index of the variable in that SymbolTable's slots.
+     */
+    public void setSlot(int depth, int slot) {
+        this.depth = depth;
+        this.slot = slot;
+    }
+
+    /**
+     * @return The number of SymbolTables above the current one which hold the variable, if it has been resolved.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return The index of the variable in its SymbolTable's slots, or -1 if it has not been resolved and must be looked up by name.
+     */
+    public int getSlot() {
+        return slot;
+    }
 }
@@ -0,0 +1,113 @@
+package xaridar.lscript;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import xaridar.lscript.errors.Error;
+import xaridar.lscript.interpreting.Context;
+import xaridar.lscript.interpreting.ModifierList;
+import xaridar.lscript.interpreting.SymbolTable;
+import xaridar.lscript.interpreting.types.BuiltInFunction;
+import xaridar.lscript.interpreting.types.LBoolean;
+import xaridar.lscript.interpreting.types.NullType;
+import xaridar.lscript.interpreting.types.builtins.IExecutable;
+import xaridar.lscript.interpreting.types.builtins.math.MathConstants;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Times LScript scripts, and small pieces of Java, in the current JVM.
+ * Each one is run a number of times first to warm up the JVM, set by the 'lscript.bench.warmup' property, and is then timed over a number of runs, set by 'lscript.bench.runs'.
+ * A script may start with a comment such as '// ops: 1000000' to give the number of operations it makes, so that the time of a single operation can be reported.
+ * The scripts are run with the engine selected by the usual properties, such as 'lscript.jit' and 'lscript.fold'.
+ * To compare with an older build, run the same benchmark with that build's main classes before these on the class path.
+ * Usage: Benchmark [directory of the test resources, such as 'xaridar/lscript/bench/dispatch']...
+ */
+public class Benchmark {
+    private static final int WARMUP = Integer.getInteger("lscript.bench.warmup", 3);
+    private static final int RUNS = Integer.getInteger("lscript.bench.runs", 5);
+    private static final Pattern OPS = Pattern.compile("^//\\s*ops:\\s*(\\d+)");
+
+    public static void main(String[] args) throws IOException {
+        defineGlobals();
+        for (String directory : args) {
+            for (Path script : ScriptRunner.scripts(directory)) {
+                runScript(script);
+            }
+        }
+    }
+
+    /**
+     * Times a script, reporting any Error it stops with instead.
+     * @param script - The path of the script.
+     */
+    public static void runScript(Path script) throws IOException {
+        String text = new String(Files.readAllBytes(script), StandardCharsets.UTF_8);
+        Matcher ops = OPS.matcher(text);
+        String name = script.getFileName().toString();
+        Error error = run(name, text);
+        if (error != null) {
+            System.out.println(error);
+            return;
+        }
+        measure(name, ops.find() ? Long.parseLong(ops.group(1)) : 1, () -> run(name, text));
+    }
+
+    /**
+     * Defines the globals which the Shell defines before running a script.
+     * They are defined here rather than through a method of the Shell, so that the benchmarks can also run against older builds.
+     */
+    public static void defineGlobals() {
+        Shell.GLOBAL_SYMBOL_TABLE.set("nullType", "null", NullType.Null, ModifierList.getDefault());
+        Shell.GLOBAL_SYMBOL_TABLE.set("bool", "true", LBoolean.True, ModifierList.getDefault());
+        Shell.GLOBAL_SYMBOL_TABLE.set("bool", "false", LBoolean.False, ModifierList.getDefault());
+        Shell.GLOBAL_SYMBOL_TABLE.set("float", "pi", MathConstants.Pi, ModifierList.getDefault());
+        for (IExecutable func : IExecutable.builtins) {
+            Shell.GLOBAL_SYMBOL_TABLE.set("function", func.getName(), new BuiltInFunction(func.getName()), ModifierList.getDefault());
+        }
+    }
+
+    private static Error run(String name, String text) {
+        Context context = new Context(name, null, null, false);
+        context.setSymbolTable(new SymbolTable(Shell.GLOBAL_SYMBOL_TABLE, context));
+        return Shell.run(name, text, context).getRight();
+    }
+
+    /**
+     * Times a piece of code, and prints the mean and fastest time of its runs.
+     * @param name - The name to report the time under.
+     * @param ops - The number of operations made by each run of the code.
+     * @param body - The code to time.
+     * @return the mean time of an operation, in nanoseconds.
+     */
+    public static double measure(String name, long ops, Runnable body) {
+        for (int i = 0; i < WARMUP; i++) {
+            body.run();
+        }
+        long total = 0;
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            body.run();
+            long time = System.nanoTime() - start;
+            total += time;
+            fastest = Math.min(fastest, time);
+        }
+        double mean = (double) total / RUNS;
+        double perOp = mean / ops;
+        if (ops == 1)
+            System.out.printf("%-32s %10.1f ms/run (fastest %.1f ms)%n", name, mean / 1e6, fastest / 1e6);
+        else
+            System.out.printf("%-32s %10.1f ms/run (fastest %.1f ms) %10.2f ns/op %14.0f ops/s%n", name, mean / 1e6, fastest / 1e6, perOp, 1e9 / perOp);
+        return perOp;
+    }
+}
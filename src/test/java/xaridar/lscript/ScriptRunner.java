@@ -0,0 +1,132 @@
+package xaridar.lscript;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs LScript files through the Shell in a separate JVM, so that each run starts with its own system properties and interpreter state.
+ * Differential tests use it to run the same scripts with two configurations and compare everything the Shell prints, including Errors and their positions.
+ * Other tests compare what the Shell prints with an '.out' file kept next to the script.
+ * Test scripts are read from 'src/test/resources', or from the directory given by the 'lscript.test.resources' property.
+ */
+public class ScriptRunner {
+    private static final long TIMEOUT_SECONDS = 120;
+
+    /**
+     * Finds the test scripts in a directory of the test resources.
+     * @param directory - The directory, relative to the test resources, such as 'xaridar/lscript/jit'.
+     * @return the paths of the '.ls' files in the directory, in name order.
+     */
+    public static List<Path> scripts(String directory) throws IOException {
+        Path root = Paths.get(System.getProperty("lscript.test.resources", "src/test/resources"));
+        try (Stream<Path> files = Files.list(root.resolve(directory))) {
+            return files.filter(path -> path.toString().endsWith(".ls")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Runs a script through the Shell in a new JVM, using the class path of the current one.
+     * @param script - The path of the script to run.
+     * @param properties - System properties to pass to the JVM, such as '-Dlscript.jit=true'.
+     * @return everything printed by the Shell, to stdout and stderr.
+     */
+    public static String run(Path script, String... properties) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(Arrays.asList(properties));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Shell.class.getName());
+        command.add(script.toString());
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = read(process.getInputStream());
+        if (!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            throw new IOException("Timed out running " + script);
+        }
+        return output;
+    }
+
+    /**
+     * Runs each script with two sets of system properties, and reports every script whose output differs.
+     * @param suite - The name of the test, used in the report.
+     * @param scripts - The scripts to run.
+     * @param expected - The properties of the reference run.
+     * @param actual - The properties of the run being tested.
+     * @return the number of scripts whose output differed.
+     */
+    public static int compare(String suite, List<Path> scripts, String[] expected, String[] actual) throws IOException, InterruptedException {
+        int failures = 0;
+        for (Path script : scripts) {
+            String expectedOutput = run(script, expected);
+            String actualOutput = run(script, actual);
+            if (expectedOutput.equals(actualOutput)) {
+                System.out.println("PASS " + suite + ": " + script.getFileName());
+            } else {
+                failures++;
+                System.out.println("FAIL " + suite + ": " + script.getFileName());
+                System.out.println("--- " + String.join(" ", expected));
+                System.out.println(expectedOutput);
+                System.out.println("+++ " + String.join(" ", actual));
+                System.out.println(actualOutput);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Runs each script with a set of system properties, and reports every script whose output differs from the '.out' file next to it.
+     * @param suite - The name of the test, used in the report.
+     * @param scripts - The scripts to run.
+     * @param properties - The properties of the run.
+     * @return the number of scripts whose output differed.
+     */
+    public static int expect(String suite, List<Path> scripts, String[] properties) throws IOException, InterruptedException {
+        int failures = 0;
+        for (Path script : scripts) {
+            String name = script.getFileName().toString();
+            Path out = script.resolveSibling(name.substring(0, name.length() - ".ls".length()) + ".out");
+            String expectedOutput = new String(Files.readAllBytes(out), StandardCharsets.UTF_8);
+            String actualOutput = run(script, properties);
+            if (expectedOutput.equals(actualOutput)) {
+                System.out.println("PASS " + suite + ": " + name + " " + String.join(" ", properties));
+            } else {
+                failures++;
+                System.out.println("FAIL " + suite + ": " + name + " " + String.join(" ", properties));
+                System.out.println("--- " + out.getFileName());
+                System.out.println(expectedOutput);
+                System.out.println("+++ " + String.join(" ", properties));
+                System.out.println(actualOutput);
+            }
+        }
+        return failures;
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            bytes.write(buffer, 0, n);
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,29 @@
+package xaridar.lscript;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+/**
+ * Checks that scripts print what they should with every engine.
+ * Each script in 'xaridar/lscript/shell' is run with the Interpreter alone, and with the bytecode tier at a threshold low enough that its functions are compiled, and everything the Shell prints must match the script's '.out' file.
+ * Run with the compiled main and test classes on the class path, from the project directory.
+ */
+public class ShellTest {
+    private static final String[][] ENGINES = {
+            {"-Dlscript.jit=false"},
+            {"-Dlscript.jit=true", "-Dlscript.jit.threshold=2"}
+    };
+
+    public static void main(String[] args) throws Exception {
+        int failures = 0;
+        for (String[] engine : ENGINES) {
+            failures += ScriptRunner.expect("shell", ScriptRunner.scripts("xaridar/lscript/shell"), engine);
+        }
+        System.out.println(failures == 0 ? "All tests passed." : failures + " test(s) failed.");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,65 @@
+package xaridar.lscript.interpreting;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import xaridar.lscript.Benchmark;
+import xaridar.lscript.interpreting.types.LInt;
+import xaridar.lscript.interpreting.types.Value;
+
+/**
+ * Times looking up, checking, and reassigning variables in SymbolTables holding from 10 to 10000 variables, as in large modules or instances of classes with many fields.
+ * The time of each operation should stay flat as the table grows.
+ * Lookups through a nested table, which holds none of the variables, are timed as well, as each of them first misses in the nested table.
+ * Run with the compiled main and test classes on the class path; see Benchmark for the properties it takes.
+ */
+public class SymbolTableBenchmark {
+    private static final int[] SIZES = {10, 100, 1000, 10000};
+    private static final int OPS = 100000;
+
+    /**
+     * Keeps the results of the timed operations reachable, so that the JIT cannot remove them.
+     */
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        for (int size : SIZES) {
+            SymbolTable table = new SymbolTable();
+            String[] names = new String[size];
+            for (int i = 0; i < size; i++) {
+                names[i] = "v" + i;
+                table.set("int", names[i], new LInt(i), ModifierList.getDefault());
+            }
+            SymbolTable nested = new SymbolTable(table, null);
+            // The names are visited in a scrambled order, so that the lookups are not all to variables declared close together.
+            String[] order = new String[OPS];
+            for (int i = 0; i < OPS; i++) {
+                order[i] = names[(int) ((i * 2654435761L) % size)];
+            }
+            Value value = new LInt(-1);
+            Benchmark.measure("get, " + size + " symbols", OPS, () -> {
+                Value last = null;
+                for (String name : order) last = table.get(name);
+                sink = last;
+            });
+            Benchmark.measure("hasVar, " + size + " symbols", OPS, () -> {
+                int found = 0;
+                for (String name : order) if (table.hasVar(name)) found++;
+                sink = found;
+            });
+            Benchmark.measure("reassign, " + size + " symbols", OPS, () -> {
+                for (String name : order) table.set(null, name, value, ModifierList.getDefault());
+                sink = table;
+            });
+            Benchmark.measure("nested get, " + size + " symbols", OPS, () -> {
+                Value last = null;
+                for (String name : order) last = nested.get(name);
+                sink = last;
+            });
+        }
+    }
+}
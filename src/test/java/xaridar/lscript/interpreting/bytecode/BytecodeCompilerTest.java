@@ -0,0 +1,69 @@
+package xaridar.lscript.interpreting.bytecode;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import xaridar.lscript.ScriptRunner;
+import xaridar.lscript.Shell;
+import xaridar.lscript.Tuple;
+import xaridar.lscript.errors.Error;
+import xaridar.lscript.interpreting.Context;
+import xaridar.lscript.interpreting.RunTimeResult;
+import xaridar.lscript.interpreting.types.LFunction;
+import xaridar.lscript.interpreting.types.LInt;
+import xaridar.lscript.interpreting.types.Value;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks that the bytecode tier gives the same results and Errors as the Interpreter.
+ * Each script in 'xaridar/lscript/jit' is run with the tier disabled, and with it enabled at a threshold low enough that its functions are compiled while the script runs.
+ * The scripts cover int and float args, self-recursion, deoptimization when dividing or taking the modulo of ints or floats by zero, and rebinding a compiled function's name.
+ * Run with the compiled main and test classes on the class path, from the project directory.
+ */
+public class BytecodeCompilerTest {
+    private static final String[] INTERPRETED = {"-Dlscript.jit=false"};
+    private static final String[] COMPILED = {"-Dlscript.jit=true", "-Dlscript.jit.threshold=2"};
+
+    public static void main(String[] args) throws Exception {
+        int failures = ScriptRunner.compare("jit", ScriptRunner.scripts("xaridar/lscript/jit"), INTERPRETED, COMPILED);
+        failures += checkCompiled();
+        System.out.println(failures == 0 ? "All tests passed." : failures + " test(s) failed.");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * Checks that the scripts are testing compiled code at all: a hot function is compiled and run by the tier, and a call which divides by zero is handed back to the Interpreter.
+     * @return the number of failed checks.
+     */
+    private static int checkCompiled() {
+        BytecodeCompiler.setEnabled(true);
+        BytecodeCompiler.threshold = 1;
+        Tuple<Context, Error> script = Shell.runInternal("<test>",
+                "func fib(int n) : int { if (n < 2) { return n; } return fib(n - 1) + fib(n - 2); }\n" +
+                "func rem(int a, int b) : int { return a % b; }", false);
+        if (script.getRight() != null) {
+            System.out.println("FAIL jit: " + script.getRight());
+            return 1;
+        }
+        int failures = 0;
+        Value fib = script.getLeft().getSymbolTable().get("fib");
+        RunTimeResult result = BytecodeCompiler.getInstance().execute((LFunction) fib, Arrays.asList(LInt.of(20)), null);
+        failures += check("fib is compiled", result != null && LInt.of(6765).equals(result.getValue()));
+        Value rem = script.getLeft().getSymbolTable().get("rem");
+        List<Value> byZero = Arrays.asList(LInt.of(7), LInt.of(0));
+        failures += check("rem is compiled", BytecodeCompiler.getInstance().execute((LFunction) rem, Arrays.asList(LInt.of(7), LInt.of(3)), null) != null);
+        failures += check("rem by 0 deoptimizes", BytecodeCompiler.getInstance().execute((LFunction) rem, byZero, null) == null);
+        return failures;
+    }
+
+    private static int check(String name, boolean passed) {
+        System.out.println((passed ? "PASS" : "FAIL") + " jit: " + name);
+        return passed ? 0 : 1;
+    }
+}
@@ -0,0 +1,71 @@
+package xaridar.lscript.interpreting.types;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import xaridar.lscript.Benchmark;
+import xaridar.lscript.TokenEnum;
+import xaridar.lscript.lexing.Token;
+
+/**
+ * Times each of the twelve binary operators between ints and floats, both on the primitive path taken by the Interpreter and through BasicType.apply, which every operation went through before the primitive path was added.
+ * Run with the compiled main and test classes on the class path; see Benchmark for the properties it takes.
+ */
+public class LNumberBenchmark {
+    private static final int OPS = 1000000;
+    private static final int VALUES = 1024;
+    private static final TokenEnum[] OPERATORS = {
+            TokenEnum.TT_PLUS, TokenEnum.TT_MINUS, TokenEnum.TT_MUL, TokenEnum.TT_DIV, TokenEnum.TT_POW, TokenEnum.TT_MOD,
+            TokenEnum.TT_LT, TokenEnum.TT_GT, TokenEnum.TT_LEQ, TokenEnum.TT_GEQ, TokenEnum.TT_BOOLEQ, TokenEnum.TT_NEQ
+    };
+    private static final String[] SYMBOLS = {"+", "-", "*", "/", "^", "%", "<", ">", "<=", ">=", "==", "!="};
+
+    /**
+     * Keeps the results of the timed operations reachable, so that the JIT cannot remove them.
+     */
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        String[] names = {"int, int", "int, float", "float, float"};
+        Value[][][] operands = new Value[names.length][2][VALUES];
+        // Each operation cycles through different operands, so that the JIT cannot compute the result once for the whole loop; no right operand is 0.
+        for (int i = 0; i < VALUES; i++) {
+            operands[0][0][i] = new LInt(i);
+            operands[0][1][i] = new LInt(i % 10 + 1);
+            operands[1][0][i] = new LInt(i);
+            operands[1][1][i] = new LFloat(i % 10 + 1.5f);
+            operands[2][0][i] = new LFloat(i + 0.5f);
+            operands[2][1][i] = new LFloat(i % 10 + 1.5f);
+        }
+        for (int op = 0; op < OPERATORS.length; op++) {
+            TokenEnum opType = OPERATORS[op];
+            Token token = new Token(opType, null, null, null, SYMBOLS[op]);
+            for (int pair = 0; pair < names.length; pair++) {
+                Value[] left = operands[pair][0];
+                Value[] right = operands[pair][1];
+                Benchmark.measure(SYMBOLS[op] + " " + names[pair] + ", primitive", OPS, () -> {
+                    Object last = null;
+                    for (int i = 0; i < OPS; i++) {
+                        int index = i & (VALUES - 1);
+                        // As in Interpreter.visitBinaryOperationNode, operations the primitive path cannot apply fall back to BasicType.apply.
+                        BasicType result = LNumber.operate(opType, left[index], right[index]);
+                        last = result != null ? result : left[index].apply(token, right[index]);
+                    }
+                    sink = last;
+                });
+                Benchmark.measure(SYMBOLS[op] + " " + names[pair] + ", apply", OPS, () -> {
+                    Object last = null;
+                    for (int i = 0; i < OPS; i++) {
+                        int index = i & (VALUES - 1);
+                        last = left[index].apply(token, right[index]);
+                    }
+                    sink = last;
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package xaridar.lscript.interpreting.types;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that lists sharing a Store never see each other's changes.
+ * Random slices, sums, sets, appends, inserts and removals are made on a pool of PackedLists, each alongside an ArrayList holding the elements it should have, and every list is compared with its ArrayList after each step.
+ * Run with the compiled main and test classes on the class path.
+ */
+public class PackedListTest {
+    private static final int RUNS = 200;
+    private static final int STEPS = 300;
+    private static final int POOL_SIZE = 6;
+
+    public static void main(String[] args) {
+        int failures = 0;
+        for (int run = 0; run < RUNS; run++) {
+            String failure = check(new Random(run));
+            if (failure != null) {
+                failures++;
+                System.out.println("FAIL list: seed " + run + ": " + failure);
+            }
+        }
+        if (failures == 0) System.out.println("PASS list: " + RUNS + " random runs");
+        System.out.println(failures == 0 ? "All tests passed." : failures + " test(s) failed.");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * Makes random changes to a pool of lists, comparing each list with the ArrayList it should equal after every change.
+     * @param random - The source of the changes.
+     * @return a description of the first difference found, or null if there was none.
+     */
+    private static String check(Random random) {
+        List<PackedList> lists = new ArrayList<>();
+        List<List<Value>> expected = new ArrayList<>();
+        for (int i = 0; i < POOL_SIZE; i++) {
+            lists.add(new PackedList());
+            expected.add(new ArrayList<>());
+        }
+        for (int step = 0; step < STEPS; step++) {
+            int target = random.nextInt(POOL_SIZE);
+            int source = random.nextInt(POOL_SIZE);
+            PackedList list = lists.get(target);
+            List<Value> model = expected.get(target);
+            int size = model.size();
+            String operation;
+            switch (random.nextInt(8)) {
+                case 0: {
+                    int from = size == 0 ? 0 : random.nextInt(size + 1);
+                    int to = from + random.nextInt(size - from + 1);
+                    operation = "slice(" + from + ", " + to + ") of " + target + " into " + source;
+                    lists.set(source, list.slice(from, to));
+                    expected.set(source, new ArrayList<>(model.subList(from, to)));
+                    break;
+                }
+                case 1: {
+                    operation = "sum of " + target + " and " + source + " into " + target;
+                    PackedList sum = PackedList.copyOf(list);
+                    sum.addAll(lists.get(source));
+                    List<Value> modelSum = new ArrayList<>(model);
+                    modelSum.addAll(expected.get(source));
+                    lists.set(target, sum);
+                    expected.set(target, modelSum);
+                    break;
+                }
+                case 2:
+                case 3: {
+                    if (size == 0) continue;
+                    int index = random.nextInt(size);
+                    Value element = element(random);
+                    operation = "set(" + index + ", " + element + ") of " + target;
+                    list.set(index, element);
+                    model.set(index, element);
+                    break;
+                }
+                case 4: {
+                    Value element = element(random);
+                    operation = "add(" + element + ") to " + target;
+                    list.add(element);
+                    model.add(element);
+                    break;
+                }
+                case 5: {
+                    int index = random.nextInt(size + 1);
+                    Value element = element(random);
+                    operation = "add(" + index + ", " + element + ") to " + target;
+                    list.add(index, element);
+                    model.add(index, element);
+                    break;
+                }
+                case 6: {
+                    if (size == 0) continue;
+                    int index = random.nextInt(size);
+                    operation = "remove(" + index + ") of " + target;
+                    list.remove(index);
+                    model.remove(index);
+                    break;
+                }
+                default: {
+                    int from = size == 0 ? 0 : random.nextInt(size + 1);
+                    int to = from + random.nextInt(size - from + 1);
+                    operation = "clear(" + from + ", " + to + ") of " + target;
+                    list.subList(from, to).clear();
+                    model.subList(from, to).clear();
+                }
+            }
+            for (int i = 0; i < POOL_SIZE; i++) {
+                String actual = lists.get(i).toString();
+                String wanted = expected.get(i).toString();
+                if (!actual.equals(wanted))
+                    return "after step " + step + ", " + operation + ", list " + i + " is " + actual + " instead of " + wanted;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return a random element, usually an int so that most lists stay packed.
+     */
+    private static Value element(Random random) {
+        switch (random.nextInt(10)) {
+            case 0:
+                return new LFloat(random.nextInt(100) / 4f);
+            case 1:
+                return new LString("s" + random.nextInt(100));
+            default:
+                return LInt.of(random.nextInt(100));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package xaridar.lscript.parsing;
+
+/*
+ * LScript is an interpreted scripting language with static typing, written in Java by Xaridar.
+ *
+ * @version 2.0.0
+ * @author Xaridar
+ */
+
+import xaridar.lscript.ScriptRunner;
+import xaridar.lscript.lexing.Lexer;
+import xaridar.lscript.parsing.nodes.BinaryOperationNode;
+import xaridar.lscript.parsing.nodes.ConditionalNode;
+import xaridar.lscript.parsing.nodes.MultilineNode;
+import xaridar.lscript.parsing.nodes.Node;
+import xaridar.lscript.parsing.nodes.NumberNode;
+
+import java.util.List;
+
+/**
+ * Checks that folding gives the same results and Errors as interpreting the unfolded script.
+ * Each script in 'xaridar/lscript/fold' is run with 'lscript.fold' set to false and to true, and everything the Shell prints, including the Positions of Errors, must match.
+ * The scripts cover folded division and modulo by zero, pruning 'if (true)' and 'if (false)', and functions which redefine 'true' and 'false'.
+ * Run with the compiled main and test classes on the class path, from the project directory.
+ */
+public class OptimizerTest {
+    private static final String[] UNFOLDED = {"-Dlscript.fold=false"};
+    private static final String[] FOLDED = {"-Dlscript.fold=true"};
+
+    public static void main(String[] args) throws Exception {
+        int failures = ScriptRunner.compare("fold", ScriptRunner.scripts("xaridar/lscript/fold"), UNFOLDED, FOLDED);
+        failures += checkFolded();
+        System.out.println(failures == 0 ? "All tests passed." : failures + " test(s) failed.");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * Checks that the scripts are testing folded code at all: literal arithmetic becomes a single literal, and branches that can never run are removed.
+     * @return the number of failed checks.
+     */
+    private static int checkFolded() {
+        Optimizer.enabled = true;
+        int failures = 0;
+        List<Node> arithmetic = optimize("1 + 2 * 3;");
+        failures += check("literal arithmetic is folded", arithmetic.size() == 1 && arithmetic.get(0) instanceof NumberNode);
+        ConditionalNode ifTrue = (ConditionalNode) optimize("if (true) { 1; } else { 2; }").get(0);
+        failures += check("if (true) drops its else case", ifTrue.getCases().size() == 1 && ifTrue.getElseCase() == null);
+        ConditionalNode ifFalse = (ConditionalNode) optimize("int x = 1;\nif (false) { 1; } elif (x == 1) { 2; }").get(1);
+        failures += check("if (false) drops its case", ifFalse.getCases().size() == 1 && ifFalse.getCases().get(0).getLeft().getLeft() instanceof BinaryOperationNode);
+        List<Node> divisionByZero = optimize("1 / 0;");
+        failures += check("division by 0 is left to fail", !(divisionByZero.get(0) instanceof NumberNode));
+        return failures;
+    }
+
+    private static List<Node> optimize(String text) {
+        Node root = new Parser(new Lexer("<test>", text).makeTokens().getLeft()).parse().getNode();
+        return ((MultilineNode) new Optimizer().optimizeScript(root)).getNodes();
+    }
+
+    private static int check(String name, boolean passed) {
+        System.out.println((passed ? "PASS" : "FAIL") + " fold: " + name);
+        return passed ? 0 : 1;
+    }
+}